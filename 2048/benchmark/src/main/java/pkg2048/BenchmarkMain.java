@@ -0,0 +1,28 @@
+package pkg2048;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+//========================================================================//
+/*
+ Roda os benchmarks sempre com o profiler de alocação (gc.alloc.rate.norm = bytes/op),
+ assim uma regressão aparece tanto em ns/op quanto em bytes/op.
+ Aceita as mesmas opções do JMH, ex: java -jar target/benchmarks.jar Gameboard -f 2
+ */
+public class BenchmarkMain {
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions cmd = new CommandLineOptions(args);
+        new Runner(new OptionsBuilder()
+                .parent(cmd)
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,71 @@
+package pkg2048;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+//========================================================================//
+//Motor sem tela: mesmas operações do Gameboard direto sobre o long
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BitboardBenchmark {
+
+    @Param({"empty", "halfFull", "nearDead"})
+    public String fixture;
+
+    private long board;
+    private Random random;
+
+    @Setup
+    public void setup() {
+        board = Fixtures.get(fixture);
+        random = new Random(2048);
+    }
+
+    @Benchmark
+    public long moveLeft() {
+        return Bitboard.moveLeft(board);
+    }
+
+    @Benchmark
+    public long moveRight() {
+        return Bitboard.moveRight(board);
+    }
+
+    @Benchmark
+    public long moveUp() {
+        return Bitboard.moveUp(board);
+    }
+
+    @Benchmark
+    public long moveDown() {
+        return Bitboard.moveDown(board);
+    }
+
+    @Benchmark
+    public boolean isDead() {
+        return Bitboard.isDead(board);
+    }
+
+    @Benchmark
+    public long spawn() {
+        if (Bitboard.countEmpty(board) == 0) {
+            return board;
+        }
+        return Bitboard.spawn(board, random, 1, 2);
+    }
+}
@@ -0,0 +1,52 @@
+package pkg2048;
+
+import java.util.Random;
+
+//========================================================================//
+//Boards fixos usados por todos os benchmarks (gerados com semente fixa)
+public class Fixtures {
+
+    public static final long EMPTY = 0L;
+    public static final long HALF_FULL = halfFull();
+    public static final long NEAR_DEAD = nearDead();
+
+    private Fixtures() {
+    }
+
+    public static long get(String name) {
+        if (name.equals("empty")) {
+            return EMPTY;
+        } else if (name.equals("halfFull")) {
+            return HALF_FULL;
+        } else if (name.equals("nearDead")) {
+            return NEAR_DEAD;
+        }
+        throw new IllegalArgumentException("Fixture desconhecida: " + name);
+    }
+
+    //8 peças de 2 a 128 em casas sorteadas
+    private static long halfFull() {
+        Random random = new Random(2048);
+        long board = 0;
+        int placed = 0;
+        while (placed < 8) {
+            int cell = random.nextInt(16);
+            if (Bitboard.getExponent(board, cell / 4, cell % 4) == 0) {
+                board = Bitboard.setExponent(board, cell / 4, cell % 4, 1 + random.nextInt(7));
+                placed++;
+            }
+        }
+        return board;
+    }
+
+    //Board cheio em xadrez (nenhuma combinação) com um unico par combinavel
+    private static long nearDead() {
+        long board = 0;
+        for (int row = 0; row < 4; row++) {
+            for (int col = 0; col < 4; col++) {
+                board = Bitboard.setExponent(board, row, col, 1 + (row + col) % 2 + 2 * row);
+            }
+        }
+        return Bitboard.setExponent(board, 3, 3, Bitboard.getExponent(board, 3, 2));
+    }
+}
@@ -0,0 +1,109 @@
+package pkg2048;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+//========================================================================//
+/*
+ Caminho quente do Gameboard: movimentos, checkDead, spawn e desenho.
+ Cada operação começa recarregando a fixture (loadState), que é medida sozinha
+ em baselineLoadState para poder ser descontada.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class GameboardBenchmark {
+
+    @Param({"empty", "halfFull", "nearDead"})
+    public String fixture;
+
+    private long board;
+    private Gameboard gameboard;
+    private BufferedImage screen;
+    private Graphics2D g;
+
+    @Setup
+    public void setup() {
+        board = Fixtures.get(fixture);
+        gameboard = new Gameboard(0, 0, new Random(2048));
+        screen = new BufferedImage(Game.WIDTH, Game.HEIGHT, BufferedImage.TYPE_INT_RGB);
+        g = (Graphics2D) screen.getGraphics();
+    }
+
+    @TearDown
+    public void tearDown() {
+        g.dispose();
+    }
+
+    //========================================================================//
+    @Benchmark
+    public long baselineLoadState() {
+        gameboard.loadState(board, 0);
+        return gameboard.getEngine().getState();
+    }
+
+    @Benchmark
+    public long moveLeft() {
+        gameboard.loadState(board, 0);
+        gameboard.moveLeft();
+        return gameboard.getEngine().getState();
+    }
+
+    @Benchmark
+    public long moveRight() {
+        gameboard.loadState(board, 0);
+        gameboard.moveRight();
+        return gameboard.getEngine().getState();
+    }
+
+    @Benchmark
+    public long moveUp() {
+        gameboard.loadState(board, 0);
+        gameboard.moveUp();
+        return gameboard.getEngine().getState();
+    }
+
+    @Benchmark
+    public long moveDown() {
+        gameboard.loadState(board, 0);
+        gameboard.moveDown();
+        return gameboard.getEngine().getState();
+    }
+
+    @Benchmark
+    public boolean checkDead() {
+        gameboard.loadState(board, 0);
+        return gameboard.checkDead();
+    }
+
+    @Benchmark
+    public long spawnRandomTile() {
+        gameboard.loadState(board, 0);
+        gameboard.spawnRandomTile(2, 4);
+        return gameboard.getEngine().getState();
+    }
+
+    @Benchmark
+    public BufferedImage draw() {
+        gameboard.loadState(board, 0);
+        gameboard.draw(g);
+        return screen;
+    }
+}
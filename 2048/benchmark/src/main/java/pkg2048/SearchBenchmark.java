@@ -0,0 +1,92 @@
+package pkg2048;
+
+import java.util.Random;
+
+//========================================================================//
+/*
+ Benchmark da busca paralela: mesma lista de posições com profundidade fixa,
+ variando o numero de threads (1, 2, 4 ... ate o numero de nucleos).
+ Mostra tempo, nós/ms e speedup em relação a 1 thread, para ver onde o ganho para de crescer.
+
+ Uso: java -cp target/benchmarks.jar pkg2048.SearchBenchmark [profundidade] [posições]
+ */
+public class SearchBenchmark {
+
+    private SearchBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        int positions = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        long[] boards = createPositions(positions);
+
+        System.out.println("profundidade=" + depth + " posições=" + positions + " nucleos=" + cores);
+        System.out.println("threads\ttempo(ms)\tnós/ms\tspeedup");
+
+        double baseline = 0;
+        for (int threads = 1; threads <= cores; threads = nextThreadCount(threads, cores)) {
+            ParallelExpectimaxPlayer player = new ParallelExpectimaxPlayer(threads, 22, Long.MAX_VALUE / 4);
+            player.setMaxDepth(depth);
+
+            //Aquecimento do JIT
+            for (int i = 0; i < Math.min(3, boards.length); i++) {
+                player.getTable().clear();
+                player.bestMove(boards[i]);
+            }
+
+            long nodes = 0;
+            long time = 0;
+            for (long board : boards) {
+                player.getTable().clear(); //cada posição começa com a tabela vazia
+                long start = System.nanoTime();
+                player.bestMove(board);
+                time += System.nanoTime() - start;
+                nodes += player.getNodes();
+            }
+            player.shutdown();
+
+            double ms = time / 1e6;
+            if (threads == 1) {
+                baseline = ms;
+            }
+            System.out.printf("%d\t%.1f\t%d\t%.2f%n", threads, ms, (long) (nodes / ms), baseline / ms);
+        }
+    }
+
+    //1, 2, 4, 8 ... e por ultimo o numero exato de nucleos
+    private static int nextThreadCount(int threads, int cores) {
+        if (threads == cores) {
+            return cores + 1;
+        }
+        return Math.min(threads * 2, cores);
+    }
+
+    //Posições de meio de jogo, tiradas de um jogo com semente fixa
+    private static long[] createPositions(int count) {
+        long[] boards = new long[count];
+        Random random = new Random(2048);
+        ExpectimaxPlayer player = new ExpectimaxPlayer(16, Long.MAX_VALUE / 4);
+        player.setMaxDepth(1);
+        BitboardEngine engine = new BitboardEngine();
+        engine.spawn(random);
+        engine.spawn(random);
+
+        for (int i = 0; i < count; i++) {
+            for (int move = 0; move < 50; move++) {
+                int dir = player.bestMove(engine.getState());
+                if (dir == -1) {
+                    engine.reset();
+                    engine.spawn(random);
+                    engine.spawn(random);
+                    continue;
+                }
+                engine.apply(dir);
+                engine.spawn(random);
+            }
+            boards[i] = engine.getState();
+        }
+        return boards;
+    }
+}
@@ -0,0 +1,51 @@
+package pkg2048;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+//========================================================================//
+/*
+ Peças: render é a rasterização completa de um valor (feita uma vez por valor no TileSprites),
+ setValue é o que uma combinação custa para a peça (troca de imagem do atlas).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class TileBenchmark {
+
+    @Param({"2", "128", "2048"})
+    public int value;
+
+    private Tile tile;
+
+    @Setup
+    public void setup() {
+        tile = new Tile(value, 0, 0);
+    }
+
+    @Benchmark
+    public BufferedImage render() {
+        return TileSprites.render(value);
+    }
+
+    @Benchmark
+    public Tile setValue() {
+        tile.setValue(value * 2);
+        tile.setValue(value);
+        return tile;
+    }
+}
@@ -0,0 +1,261 @@
+package pkg2048;
+
+import java.util.Random;
+
+//========================================================================//
+/*
+ Motor do jogo sem objetos: o board 4x4 inteiro cabe em um unico long.
+ Cada casa é um nibble (4 bits) com o expoente da peça: 0 = vazio, 1 = 2, 2 = 4 ... 11 = 2048.
+ A linha 'row' ocupa os bits 16*row ate 16*row+15, com a coluna 0 no nibble menos significativo.
+ Todas as funções são puras: recebem um long e devolvem um long (ou o score gerado pelo movimento).
+ */
+public class Bitboard {
+
+    //Board será 4x4
+    public static final int SIDE = 4;
+
+    //Expoente da peça de vitoria (2^11 = 2048)
+    public static final int WIN_EXPONENT = 11;
+
+    //Mascaras de uma casa e de uma linha
+    private static final long CELL_MASK = 0xFL;
+    private static final long ROW_MASK = 0xFFFFL;
+
+    private Bitboard() {
+    }
+
+    //=========================TABELAS DE LINHAS=============================//
+    /*
+     Toda linha possivel (16 bits = 65536 combinações) ja deslizada para a esquerda e para a direita,
+     e os pontos que cada uma gera. Calculadas uma vez quando a classe é carregada,
+     a partir de slideRowLeft/scoreRowLeft, que seguem a regra de combinação do jogo.
+     */
+    private static final char[] ROW_LEFT = new char[65536];
+    private static final char[] ROW_RIGHT = new char[65536];
+    private static final int[] SCORE_LEFT = new int[65536];
+    private static final int[] SCORE_RIGHT = new int[65536];
+
+    static {
+        for (int row = 0; row < 65536; row++) {
+            int reversed = reverseRow(row);
+            ROW_LEFT[row] = (char) slideRowLeft(row);
+            ROW_RIGHT[row] = (char) reverseRow(slideRowLeft(reversed));
+            SCORE_LEFT[row] = scoreRowLeft(row);
+            SCORE_RIGHT[row] = scoreRowLeft(reversed);
+        }
+    }
+
+    //===========================MOVIMENTOS===================================//
+    //Um movimento horizontal são 4 consultas na tabela, uma por linha
+    public static long moveLeft(long board) {
+        return (long) ROW_LEFT[(int) (board & ROW_MASK)]
+                | (long) ROW_LEFT[(int) ((board >>> 16) & ROW_MASK)] << 16
+                | (long) ROW_LEFT[(int) ((board >>> 32) & ROW_MASK)] << 32
+                | (long) ROW_LEFT[(int) (board >>> 48)] << 48;
+    }
+
+    public static long moveRight(long board) {
+        return (long) ROW_RIGHT[(int) (board & ROW_MASK)]
+                | (long) ROW_RIGHT[(int) ((board >>> 16) & ROW_MASK)] << 16
+                | (long) ROW_RIGHT[(int) ((board >>> 32) & ROW_MASK)] << 32
+                | (long) ROW_RIGHT[(int) (board >>> 48)] << 48;
+    }
+
+    //Movimentos verticais são os horizontais sobre o board transposto
+    public static long moveUp(long board) {
+        return transpose(moveLeft(transpose(board)));
+    }
+
+    public static long moveDown(long board) {
+        return transpose(moveRight(transpose(board)));
+    }
+
+    public static long move(long board, int dir) {
+        switch (dir) {
+            case GameEngine.LEFT:
+                return moveLeft(board);
+            case GameEngine.RIGHT:
+                return moveRight(board);
+            case GameEngine.UP:
+                return moveUp(board);
+            case GameEngine.DOWN:
+                return moveDown(board);
+        }
+        return board;
+    }
+
+    //=============================SCORE======================================//
+    //Pontos ganhos pelo movimento (soma dos valores das peças combinadas)
+    public static int scoreLeft(long board) {
+        return SCORE_LEFT[(int) (board & ROW_MASK)]
+                + SCORE_LEFT[(int) ((board >>> 16) & ROW_MASK)]
+                + SCORE_LEFT[(int) ((board >>> 32) & ROW_MASK)]
+                + SCORE_LEFT[(int) (board >>> 48)];
+    }
+
+    public static int scoreRight(long board) {
+        return SCORE_RIGHT[(int) (board & ROW_MASK)]
+                + SCORE_RIGHT[(int) ((board >>> 16) & ROW_MASK)]
+                + SCORE_RIGHT[(int) ((board >>> 32) & ROW_MASK)]
+                + SCORE_RIGHT[(int) (board >>> 48)];
+    }
+
+    public static int scoreUp(long board) {
+        return scoreLeft(transpose(board));
+    }
+
+    public static int scoreDown(long board) {
+        return scoreRight(transpose(board));
+    }
+
+    public static int score(long board, int dir) {
+        switch (dir) {
+            case GameEngine.LEFT:
+                return scoreLeft(board);
+            case GameEngine.RIGHT:
+                return scoreRight(board);
+            case GameEngine.UP:
+                return scoreUp(board);
+            case GameEngine.DOWN:
+                return scoreDown(board);
+        }
+        return 0;
+    }
+
+    //==============================LINHAS====================================//
+    /*
+     Desliza uma linha de 16 bits para a esquerda seguindo a mesma regra do Gameboard:
+     cada peça só pode ser combinada uma vez por movimento (canCombine).
+     Usada apenas para montar as tabelas.
+     O expoente 15 não é combinado pois 16 não cabe em um nibble.
+     */
+    static int slideRowLeft(int row) {
+        int result = 0;
+        int position = 0;
+        int pending = 0; //ultima peça colocada que ainda pode ser combinada
+
+        for (int i = 0; i < SIDE; i++) {
+            int exponent = (row >>> (4 * i)) & 0xF;
+            if (exponent == 0) {
+                continue;
+            }
+            if (exponent == pending && exponent != 0xF) {
+                result |= (exponent + 1) << (4 * position);
+                position++;
+                pending = 0;
+            } else {
+                if (pending != 0) {
+                    result |= pending << (4 * position);
+                    position++;
+                }
+                pending = exponent;
+            }
+        }
+        if (pending != 0) {
+            result |= pending << (4 * position);
+        }
+        return result;
+    }
+
+    static int scoreRowLeft(int row) {
+        int score = 0;
+        int pending = 0;
+
+        for (int i = 0; i < SIDE; i++) {
+            int exponent = (row >>> (4 * i)) & 0xF;
+            if (exponent == 0) {
+                continue;
+            }
+            if (exponent == pending && exponent != 0xF) {
+                score += 1 << (exponent + 1);
+                pending = 0;
+            } else {
+                pending = exponent;
+            }
+        }
+        return score;
+    }
+
+    //Inverte a ordem dos nibbles da linha (coluna 0 <-> coluna 3)
+    static int reverseRow(int row) {
+        return ((row >>> 12) & 0x000F) | ((row >>> 4) & 0x00F0)
+                | ((row << 4) & 0x0F00) | ((row << 12) & 0xF000);
+    }
+
+    //Transpõe o board (linha <-> coluna) trocando nibbles com mascaras
+    static long transpose(long board) {
+        long a1 = board & 0xF0F00F0FF0F00F0FL;
+        long a2 = board & 0x0000F0F00000F0F0L;
+        long a3 = board & 0x0F0F00000F0F0000L;
+        long a = a1 | (a2 << 12) | (a3 >>> 12);
+        long b1 = a & 0xFF00FF0000FF00FFL;
+        long b2 = a & 0x00FF00FF00000000L;
+        long b3 = a & 0x00000000FF00FF00L;
+        return b1 | (b2 >>> 24) | (b3 << 24);
+    }
+
+    //=============================SPAWN======================================//
+    /*
+     Sorteia uma casa e procura a proxima vazia, como o Gameboard sempre fez.
+     80% de chance do primeiro expoente e 20% do segundo. O board precisa ter casa vazia.
+     */
+    public static long spawn(long board, Random rng, int exponent1, int exponent2) {
+        int location = rng.nextInt(SIDE * SIDE);
+
+        do {
+            location = (location + 1) % (SIDE * SIDE);
+        } while (((board >>> (4 * location)) & CELL_MASK) != 0);
+
+        int exponent = rng.nextInt(10) < 8 ? exponent1 : exponent2;
+        return board | ((long) exponent << (4 * location));
+    }
+
+    //=============================ESTADO=====================================//
+    public static boolean isDead(long board) {
+        return countEmpty(board) == 0 && moveLeft(board) == board && moveUp(board) == board;
+    }
+
+    //Junta os 4 bits de cada casa no bit mais baixo do nibble e conta as casas ocupadas
+    public static int countEmpty(long board) {
+        long occupied = board | (board >>> 1);
+        occupied |= occupied >>> 2;
+        occupied &= 0x1111111111111111L;
+        return SIDE * SIDE - Long.bitCount(occupied);
+    }
+
+    public static int maxExponent(long board) {
+        int max = 0;
+        for (int i = 0; i < SIDE * SIDE; i++) {
+            int exponent = (int) ((board >>> (4 * i)) & CELL_MASK);
+            if (exponent > max) {
+                max = exponent;
+            }
+        }
+        return max;
+    }
+
+    //========================GETTERS e SETTERS===============================//
+    public static int getRow(long board, int row) {
+        return (int) ((board >>> (16 * row)) & ROW_MASK);
+    }
+
+    public static int getExponent(long board, int row, int col) {
+        return (int) ((board >>> (4 * (SIDE * row + col))) & CELL_MASK);
+    }
+
+    public static long setExponent(long board, int row, int col, int exponent) {
+        int shift = 4 * (SIDE * row + col);
+        return (board & ~(CELL_MASK << shift)) | ((long) exponent << shift);
+    }
+
+    //Valor da peça (2, 4, 8 ...) ou 0 se vazio
+    public static int getValue(long board, int row, int col) {
+        int exponent = getExponent(board, row, col);
+        return exponent == 0 ? 0 : 1 << exponent;
+    }
+
+    //Expoente de um valor de peça (2 -> 1, 4 -> 2 ...)
+    public static int toExponent(int value) {
+        return Integer.numberOfTrailingZeros(value);
+    }
+}
@@ -0,0 +1,149 @@
+package pkg2048;
+
+import java.util.Random;
+
+//========================================================================//
+/*
+ Confere as tabelas de linhas do Bitboard contra a regra original do Gameboard, em que cada
+ peça andava casa a casa e só podia ser combinada uma vez por movimento (canCombine).
+ 1) Todas as 65536 linhas, para a esquerda e para a direita: linha e pontos.
+ 2) Boards aleatorios nas 4 direções (passa pela transposição dos movimentos verticais).
+ Linhas que combinariam duas peças de expoente 15 são puladas: 2^16 não cabe em um nibble.
+ Sai com codigo 1 se alguma coisa for diferente.
+
+ Uso: java -cp 2048.jar pkg2048.BitboardCheck [boards] [semente]
+ */
+public class BitboardCheck {
+
+    private static final int SIDE = Bitboard.SIDE;
+
+    private BitboardCheck() {
+    }
+
+    public static void main(String[] args) {
+        int boards = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 2048;
+
+        int[][] values = new int[SIDE][SIDE];
+        int failed = 0;
+        int skipped = 0;
+
+        //1) Cada linha possivel na linha 0 de um board vazio
+        for (int row = 0; row < 65536; row++) {
+            for (int dir = GameEngine.LEFT; dir <= GameEngine.RIGHT; dir++) {
+                long board = row;
+                int result = check(board, dir, values);
+                if (result == -1) {
+                    skipped++;
+                } else if (result == 1) {
+                    failed++;
+                }
+            }
+        }
+
+        //2) Boards inteiros, peças de 2 ate 2048 e casas vazias
+        Random random = new Random(seed);
+        for (int i = 0; i < boards; i++) {
+            long board = 0;
+            for (int cell = 0; cell < SIDE * SIDE; cell++) {
+                board |= (long) random.nextInt(Bitboard.WIN_EXPONENT + 1) << (4 * cell);
+            }
+            for (int dir = GameEngine.LEFT; dir <= GameEngine.DOWN; dir++) {
+                if (check(board, dir, values) == 1) {
+                    failed++;
+                }
+            }
+        }
+
+        System.out.println("65536 linhas e " + boards + " boards conferidos, " + failed + " diferentes ("
+                + skipped + " linhas com 15 + 15 puladas)");
+        if (failed > 0) {
+            System.exit(1);
+        }
+    }
+
+    //0 se o Bitboard bate com a regra original, 1 se não bate, -1 se o resultado não cabe no Bitboard
+    private static int check(long board, int dir, int[][] values) {
+        for (int row = 0; row < SIDE; row++) {
+            for (int col = 0; col < SIDE; col++) {
+                values[row][col] = Bitboard.getValue(board, row, col);
+            }
+        }
+        int score = originalMove(values, dir);
+
+        long expected = 0;
+        for (int row = 0; row < SIDE; row++) {
+            for (int col = 0; col < SIDE; col++) {
+                if (values[row][col] == 0) {
+                    continue;
+                }
+                int exponent = Bitboard.toExponent(values[row][col]);
+                if (exponent > 15) {
+                    return -1;
+                }
+                expected = Bitboard.setExponent(expected, row, col, exponent);
+            }
+        }
+
+        long actual = Bitboard.move(board, dir);
+        int actualScore = Bitboard.score(board, dir);
+        if (actual == expected && actualScore == score) {
+            return 0;
+        }
+        System.out.printf("diferente: board %016x direção %d -> %016x (%d pontos), original %016x (%d pontos)%n",
+                board, dir, actual, actualScore, expected, score);
+        return 1;
+    }
+
+    //=========================REGRA ORIGINAL=================================//
+    //O movimento do Gameboard antes do Bitboard, com valores em vez de Tiles; devolve os pontos
+    private static int originalMove(int[][] values, int dir) {
+        boolean[][] combined = new boolean[SIDE][SIDE];
+        int horizontal = dir == GameEngine.LEFT ? -1 : dir == GameEngine.RIGHT ? 1 : 0;
+        int vertical = dir == GameEngine.UP ? -1 : dir == GameEngine.DOWN ? 1 : 0;
+        int score = 0;
+
+        //A partir da parede para onde as peças vão
+        for (int i = 0; i < SIDE; i++) {
+            for (int j = 0; j < SIDE; j++) {
+                int row = dir == GameEngine.DOWN ? SIDE - 1 - i : i;
+                int col = dir == GameEngine.RIGHT ? SIDE - 1 - j : j;
+                score += originalMoveTile(values, combined, row, col, horizontal, vertical);
+            }
+        }
+        return score;
+    }
+
+    //Uma peça andando casa a casa, como o Gameboard.move original
+    private static int originalMoveTile(int[][] values, boolean[][] combined, int row, int col,
+            int horizontal, int vertical) {
+        int value = values[row][col];
+        if (value == 0) {
+            return 0;
+        }
+        int score = 0;
+        int Row = row;
+        int Col = col;
+        while (true) {
+            Row += vertical;
+            Col += horizontal;
+            if (Row < 0 || Row >= SIDE || Col < 0 || Col >= SIDE) {
+                break;
+            }
+            if (values[Row][Col] == 0) {
+                values[Row][Col] = value;
+                combined[Row][Col] = combined[Row - vertical][Col - horizontal];
+                values[Row - vertical][Col - horizontal] = 0;
+                combined[Row - vertical][Col - horizontal] = false;
+            } else if (values[Row][Col] == value && !combined[Row][Col]) {
+                combined[Row][Col] = true;
+                values[Row][Col] *= 2;
+                values[Row - vertical][Col - horizontal] = 0;
+                score += values[Row][Col];
+            } else {
+                break;
+            }
+        }
+        return score;
+    }
+}
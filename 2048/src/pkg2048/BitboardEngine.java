@@ -0,0 +1,79 @@
+package pkg2048;
+
+import java.util.Random;
+
+//========================================================================//
+//Implementação do GameEngine sobre o Bitboard: o jogo inteiro é um long e um int
+public class BitboardEngine implements GameEngine {
+
+    private long state;
+    private int score;
+
+    public BitboardEngine() {
+    }
+
+    public BitboardEngine(long state, int score) {
+        this.state = state;
+        this.score = score;
+    }
+
+    //========================================================================//
+    @Override
+    public boolean apply(int direction) {
+        long next = Bitboard.move(state, direction);
+        if (next == state) {
+            return false;
+        }
+        score = score + Bitboard.score(state, direction);
+        state = next;
+        return true;
+    }
+
+    @Override
+    public boolean spawn(Random rng) {
+        return spawn(rng, 2, 4);
+    }
+
+    @Override
+    public boolean spawn(Random rng, int value1, int value2) {
+        if (Bitboard.countEmpty(state) == 0) {
+            return false;
+        }
+        state = Bitboard.spawn(state, rng, Bitboard.toExponent(value1), Bitboard.toExponent(value2));
+        return true;
+    }
+
+    //========================================================================//
+    @Override
+    public boolean isDead() {
+        return Bitboard.isDead(state);
+    }
+
+    @Override
+    public boolean isWon() {
+        return Bitboard.maxExponent(state) >= Bitboard.WIN_EXPONENT;
+    }
+
+    @Override
+    public void reset() {
+        state = 0;
+        score = 0;
+    }
+
+    //========================GETTERS e SETTERS===============================//
+    @Override
+    public long getState() {
+        return state;
+    }
+
+    @Override
+    public void setState(long state, int score) {
+        this.state = state;
+        this.score = score;
+    }
+
+    @Override
+    public int getScore() {
+        return score;
+    }
+}
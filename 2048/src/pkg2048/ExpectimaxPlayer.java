@@ -0,0 +1,257 @@
+package pkg2048;
+
+import java.util.Random;
+
+//========================================================================//
+/*
+ Jogador automatico: escolhe a melhor direção com expectimax de profundidade limitada.
+ Nós de escolha (max) tentam as 4 direções, nós de sorteio (chance) colocam um 2 (80%)
+ ou um 4 (20%) em cada casa vazia, igual ao spawnRandomTile(2, 4).
+ A busca aumenta a profundidade enquanto houver tempo (iterative deepening) e usa
+ o resultado da ultima profundidade completa.
+ */
+public class ExpectimaxPlayer implements Policy {
+
+    //Pesos da avaliação de uma linha
+    private static final float LOST_PENALTY = 200000f;
+    private static final float MONOTONICITY_POWER = 4f;
+    private static final float MONOTONICITY_WEIGHT = 47f;
+    private static final float SUM_POWER = 3.5f;
+    private static final float SUM_WEIGHT = 11f;
+    private static final float MERGES_WEIGHT = 700f;
+    private static final float EMPTY_WEIGHT = 270f;
+
+    //Ramos com probabilidade menor que isso não são expandidos
+    private static final float PROBABILITY_THRESHOLD = 0.0001f;
+
+    //Profundidade maxima padrão (em movimentos) do iterative deepening
+    static final int MAX_DEPTH = 12;
+
+    //De quantos em quantos nós o relogio é consultado
+    private static final int CLOCK_INTERVAL = 4096;
+
+    //Avaliação pré-calculada de toda linha possivel
+    private static final float[] ROW_HEURISTIC = new float[65536];
+
+    static {
+        for (int row = 0; row < 65536; row++) {
+            ROW_HEURISTIC[row] = evaluateRow(row);
+        }
+    }
+
+    private final TranspositionTable table;
+    private final long budgetNanos;
+    private int maxDepth = MAX_DEPTH;
+
+    //Controle da busca atual
+    private long deadline;
+    private boolean aborted;
+    private long nodes;
+    private int lastDepth;
+
+    //========================================================================//
+    //tableBits = log2 das entradas da tabela, budgetNanos = tempo maximo por jogada
+    public ExpectimaxPlayer(int tableBits, long budgetNanos) {
+        this(new TranspositionTable(tableBits), budgetNanos);
+    }
+
+    //Tabela compartilhada (ex: varias threads da busca paralela)
+    public ExpectimaxPlayer(TranspositionTable table, long budgetNanos) {
+        this.table = table;
+        this.budgetNanos = budgetNanos;
+    }
+
+    //========================================================================//
+    //Melhor direção para o board, ou -1 se nenhuma direção move
+    public int bestMove(long board) {
+        table.nextGeneration();
+        deadline = System.nanoTime() + budgetNanos;
+        aborted = false;
+        nodes = 0;
+        lastDepth = 0;
+
+        int best = -1;
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            int move = -1;
+            float bestScore = -1;
+
+            for (int dir = 0; dir < 4; dir++) {
+                long moved = Bitboard.move(board, dir);
+                if (moved == board) {
+                    continue;
+                }
+                float score = chance(moved, depth - 1, 1f);
+                if (aborted) {
+                    break;
+                }
+                if (score > bestScore) {
+                    bestScore = score;
+                    move = dir;
+                }
+            }
+
+            if (aborted) {
+                break;
+            }
+            best = move;
+            lastDepth = depth;
+            if (best == -1 || System.nanoTime() >= deadline) {
+                break;
+            }
+        }
+        return best;
+    }
+
+    //Como Policy a busca é deterministica, o gerador não é usado
+    @Override
+    public int chooseMove(long board, Random rng) {
+        return bestMove(board);
+    }
+
+    //Usado pela busca paralela: avalia um nó de escolha ate o prazo dado
+    float searchMax(long board, int depth, float probability, long deadline) {
+        this.deadline = deadline;
+        aborted = false;
+        nodes = 0;
+        return max(board, depth, probability);
+    }
+
+    boolean isAborted() {
+        return aborted;
+    }
+
+    //========================================================================//
+    //Nó de escolha: melhor valor entre as direções possiveis (0 se o jogo acabou)
+    private float max(long board, int depth, float probability) {
+        float best = 0;
+        for (int dir = 0; dir < 4; dir++) {
+            long moved = Bitboard.move(board, dir);
+            if (moved == board) {
+                continue;
+            }
+            float score = chance(moved, depth - 1, probability);
+            if (score > best) {
+                best = score;
+            }
+        }
+        return best;
+    }
+
+    //Nó de sorteio: media ponderada de todos os spawns possiveis
+    private float chance(long board, int depth, float probability) {
+        if ((++nodes & (CLOCK_INTERVAL - 1)) == 0 && System.nanoTime() >= deadline) {
+            aborted = true;
+        }
+        if (aborted) {
+            return 0;
+        }
+        if (depth <= 0 || probability < PROBABILITY_THRESHOLD) {
+            return evaluate(board);
+        }
+
+        float cached = table.get(board, depth);
+        if (!Float.isNaN(cached)) {
+            return cached;
+        }
+
+        int empty = Bitboard.countEmpty(board);
+        float cellProbability = probability / empty;
+        float sum = 0;
+
+        long tile = 1; //peça 2 (expoente 1) na casa atual
+        for (int cell = 0; cell < Bitboard.SIDE * Bitboard.SIDE; cell++, tile <<= 4) {
+            if (((board >>> (4 * cell)) & 0xF) != 0) {
+                continue;
+            }
+            sum += 0.8f * max(board | tile, depth, cellProbability * 0.8f);
+            sum += 0.2f * max(board | (tile << 1), depth, cellProbability * 0.2f);
+        }
+        float score = sum / empty;
+
+        if (!aborted) {
+            table.put(board, depth, score);
+        }
+        return score;
+    }
+
+    //========================================================================//
+    //Avaliação do board: soma das linhas e das colunas
+    static float evaluate(long board) {
+        long transposed = Bitboard.transpose(board);
+        return ROW_HEURISTIC[(int) (board & 0xFFFF)]
+                + ROW_HEURISTIC[(int) ((board >>> 16) & 0xFFFF)]
+                + ROW_HEURISTIC[(int) ((board >>> 32) & 0xFFFF)]
+                + ROW_HEURISTIC[(int) (board >>> 48)]
+                + ROW_HEURISTIC[(int) (transposed & 0xFFFF)]
+                + ROW_HEURISTIC[(int) ((transposed >>> 16) & 0xFFFF)]
+                + ROW_HEURISTIC[(int) ((transposed >>> 32) & 0xFFFF)]
+                + ROW_HEURISTIC[(int) (transposed >>> 48)];
+    }
+
+    //Casas vazias e combinações possiveis valem pontos, linhas fora de ordem e peças grandes perdem
+    private static float evaluateRow(int row) {
+        int[] line = new int[4];
+        for (int i = 0; i < 4; i++) {
+            line[i] = (row >>> (4 * i)) & 0xF;
+        }
+
+        float sum = 0;
+        int empty = 0;
+        int merges = 0;
+        int previous = 0;
+        int counter = 0;
+        for (int i = 0; i < 4; i++) {
+            int exponent = line[i];
+            sum += Math.pow(exponent, SUM_POWER);
+            if (exponent == 0) {
+                empty++;
+            } else {
+                if (previous == exponent) {
+                    counter++;
+                } else if (counter > 0) {
+                    merges += 1 + counter;
+                    counter = 0;
+                }
+                previous = exponent;
+            }
+        }
+        if (counter > 0) {
+            merges += 1 + counter;
+        }
+
+        float monotonicityLeft = 0;
+        float monotonicityRight = 0;
+        for (int i = 1; i < 4; i++) {
+            float before = (float) Math.pow(line[i - 1], MONOTONICITY_POWER);
+            float after = (float) Math.pow(line[i], MONOTONICITY_POWER);
+            if (line[i - 1] > line[i]) {
+                monotonicityLeft += before - after;
+            } else {
+                monotonicityRight += after - before;
+            }
+        }
+
+        return LOST_PENALTY + EMPTY_WEIGHT * empty + MERGES_WEIGHT * merges
+                - MONOTONICITY_WEIGHT * Math.min(monotonicityLeft, monotonicityRight)
+                - SUM_WEIGHT * sum;
+    }
+
+    //========================GETTERS e SETTERS===============================//
+    //Nós visitados na ultima busca
+    public long getNodes() {
+        return nodes;
+    }
+
+    //Ultima profundidade completa
+    public int getLastDepth() {
+        return lastDepth;
+    }
+
+    public void setMaxDepth(int maxDepth) {
+        this.maxDepth = maxDepth;
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+}
@@ -0,0 +1,42 @@
+package pkg2048;
+
+import java.util.Random;
+
+//========================================================================//
+/*
+ Regras do jogo sem nenhuma dependencia de AWT/Swing.
+ Pode ser usado em um servidor, em simulações ou em benchmarks, sem tela.
+ O gerador de numeros aleatorios é sempre passado de fora, assim um Random
+ com semente fixa reproduz exatamente o mesmo jogo.
+ */
+public interface GameEngine {
+
+    //Direções
+    public static final int LEFT = 0;
+    public static final int RIGHT = 1;
+    public static final int UP = 2;
+    public static final int DOWN = 3;
+
+    //Estado compactado do board (ver Bitboard)
+    public long getState();
+
+    public void setState(long state, int score);
+
+    public int getScore();
+
+    //Aplica o movimento, retorna false se nenhuma peça se moveu
+    public boolean apply(int direction);
+
+    //Coloca um 2 (80%) ou um 4 (20%) em uma casa vazia, retorna false se o board estiver cheio
+    public boolean spawn(Random rng);
+
+    //Spawn com os valores escolhidos (ex: easter egg com 1024, 1024)
+    public boolean spawn(Random rng, int value1, int value2);
+
+    public boolean isDead();
+
+    public boolean isWon();
+
+    //Board vazio e score zerado
+    public void reset();
+}
@@ -0,0 +1,51 @@
+package pkg2048;
+
+import java.util.Random;
+
+//========================================================================//
+/*
+ Mesmo gerador do java.util.Random (mesma formula, mesma sequencia para a mesma semente),
+ mas com o estado em um long comum que pode ser lido e restaurado: é o que o SaveGame grava
+ para a partida continuar com as mesmas peças depois de fechar o jogo.
+ Não é thread-safe (o Random usa um AtomicLong), cada partida tem o seu.
+ */
+public class GameRandom extends Random {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+
+    //Sem inicializador: o construtor do Random chama setSeed antes dos campos da subclasse
+    private long state;
+
+    public GameRandom() {
+        super();
+    }
+
+    public GameRandom(long seed) {
+        super(seed);
+    }
+
+    @Override
+    public synchronized void setSeed(long seed) {
+        super.setSeed(seed);   //limpa o nextGaussian guardado
+        state = (seed ^ MULTIPLIER) & MASK;
+    }
+
+    @Override
+    protected int next(int bits) {
+        state = (state * MULTIPLIER + ADDEND) & MASK;
+        return (int) (state >>> (48 - bits));
+    }
+
+    //========================GETTERS e SETTERS===============================//
+    public long getState() {
+        return state;
+    }
+
+    public void setState(long state) {
+        this.state = state & MASK;
+    }
+}
@@ -1,631 +1,867 @@
-package pkg2048;
-
-import java.awt.Color;
-import java.awt.Font;
-import java.awt.Graphics2D;
-import java.awt.Point;
-import java.awt.event.KeyEvent;
-import java.awt.event.MouseEvent;
-import java.awt.image.BufferedImage;
-import java.util.Random;
-import pkg2048.Servidor.HttpReturn;
-
-//========================================================================//
-public class Gameboard extends HighScore{
-
-    //Usado para o microserviço
-    HttpReturn mov = new HttpReturn();
-    public StringBuffer movement = new StringBuffer();
-    
-    //Direções
-    public static final int LEFT = 0;
-    public static final int RIGHT = 1;
-    public static final int UP = 2;
-    public static final int DOWN = 3;
-
-    //Board será 4x4
-    public static final int SIDE = 4;
-
-    //Numero de blocos iniciais 
-    private int startingTile = 2;
-
-    //Matriz para o jogo
-    private Tile[][] board;
-
-    //Verifica e vitoria
-    private boolean winGame;
-
-    //Para criar Gameboard
-    private BufferedImage gameBoard;
-
-    //Cores de fundo do board e do bloco
-    private Color backgroundBoard = new Color(0xDCDCDC);
-    private Color backgroundTile = new Color(0xD8BFD8);
-
-    //Posição para desenhar na tela
-    private int x;
-    private int y;
-
-    //Espaçamento entre as peças
-    private static int SPACING = 10;
-
-    //Altura e largura em pixel do board
-    public static int BOARD_WIDTH = (SIDE + 1) * SPACING + SIDE * Tile.WIDTH;
-    public static int BOARD_HEIGHT = (SIDE + 1) * SPACING + SIDE * Tile.HEIGHT;
-
-    //Verifica se o jogo iniciou
-    private boolean gameStarted;
-
-    private Button newGame;
-    private MouseEvent e;
-
-    //Controla score do jogo
-    public int currentScore;
-    public int highScore;
-
-    //Cores do score
-    public Color scoreColor = new Color(0xA020F0);
-    public Color bestColor = new Color(0x191970);
-
-    //Fonte do score
-    public Font scoreFont;
-
-    //========================================================================//
-    public Gameboard(int x, int y) {
-        scoreFont = Game.main.deriveFont(30f);
-
-        this.x = x;
-        this.y = y;
-
-        board = new Tile[SIDE][SIDE];   //Board 4x4
-
-        gameBoard = new BufferedImage(BOARD_WIDTH, BOARD_HEIGHT, BufferedImage.TYPE_INT_RGB);
-
-        loadScore();
-        createBoardImage();
-        startGame();
-    }
-
-    //========================================================================//
-    //funcao que checa updates, seja de teclas pressionadas, um novo highscore, ou se houve vitoria
-    public void update() {
-        typedKeysLeft();
-        typedKeysRight();
-        typedKeysUp();
-        typedKeysDown();
-        checkWebServ();
-
-        if (currentScore >= highScore) {
-            highScore = currentScore;
-        }
-
-        for (int row = 0; row < SIDE; row++) {
-            for (int col = 0; col < SIDE; col++) {
-                Tile current = board[row][col];
-                if (current == null) {
-                    continue;
-                }
-                current.update();
-                //reset the position
-                resetPosition(current, row, col);
-                if (current.getValue() == 2048) {
-                    winGame = true;
-                }
-            }
-        }
-    }
-
-    //========================================================================//
-    //Desenha coisas como o Score atual, e o recorde(highscore) salvo no arquivo
-    public void draw(Graphics2D g) {
-
-        BufferedImage BI = new BufferedImage(BOARD_WIDTH, BOARD_HEIGHT, BufferedImage.TYPE_INT_ARGB);
-        Graphics2D g2d = (Graphics2D) BI.getGraphics();
-        g2d.setColor(new Color(0, 0, 0, 0));
-        g2d.fillRect(0, 0, BOARD_WIDTH, BOARD_HEIGHT);
-        g2d.drawImage(gameBoard, 0, 0, null);
-
-        for (int row = 0; row < SIDE; row++) {
-            for (int col = 0; col < SIDE; col++) {
-                Tile currently = board[row][col];
-                if (currently == null) {
-                    continue;
-                }
-                currently.draw(g2d);
-            }
-        }
-
-        g.drawImage(BI, x, y, null);
-        g2d.dispose();
-
-        g.setColor(scoreColor);
-        g.setFont(scoreFont);
-        g.drawString("PONTUAÇÃO: " + currentScore, 30, 40);   //g.drawString(score, horizontal, vertical);
-        g.setColor(bestColor);
-        g.drawString("RECORDE: " + highScore, Game.WIDTH - MessageSize.getStringWidth("RECORDE", scoreFont, g) - 341, 80);
-    }
-
-    //==============================RESET=====================================//
-    //Reseta informações quando o usuário selecionar jogar novamente
-    public void resetBoard() {
-        board = new Tile[SIDE][SIDE];
-        startGame();
-        winGame = false;
-        gameStarted = false;
-        currentScore = 0;
-    }
-
-    public void resetBoardEasterEgg() {
-        board = new Tile[SIDE][SIDE];
-        startEasterEgg();
-        winGame = false;
-        gameStarted = false;
-        currentScore = 0;
-    }
-
-    //========================================================================//
-    //Cria background do Board
-    private void createBoardImage() {
-        Graphics2D g2d = (Graphics2D) gameBoard.getGraphics();
-
-        //Cor de fundo do Board
-        g2d.setColor(backgroundBoard);
-        g2d.fillRect(0, 0, BOARD_WIDTH, BOARD_HEIGHT);
-
-        //Cor de fundo de cada bloco 
-        g2d.setColor(backgroundTile);
-
-        for (int row = 0; row < SIDE; row++) {
-            for (int col = 0; col < SIDE; col++) {
-                int x = SPACING + SPACING * col + Tile.WIDTH * col;
-                int y = SPACING + SPACING * row + Tile.HEIGHT * row;
-                g2d.fillRect(x, y, Tile.WIDTH, Tile.HEIGHT);
-            }
-        }
-
-    }
-
-    //========================================================================//
-    //Inicia spawnando blocos 2 , 4
-    private void startGame() {
-        for (int i = 0; i < startingTile; i++) {
-            spawnRandomTile(2, 4);
-        }
-
-    }
-
-    //inicia spawnando blocos 1024 , 1024
-    private void startEasterEgg() {
-        for (int i = 0; i < startingTile; i++) {
-            spawnRandomTile(1024, 1024);
-        }
-
-    }
-
-    //========================================================================//
-    //Spawn randomico
-    private void spawnRandomTile(int value1, int value2) {
-        Random random = new Random();
-        int location = random.nextInt(SIDE * SIDE);
-        int row = 0, col = 0;
-
-        do {
-            location = (location + 1) % (SIDE * SIDE);
-            row = location / SIDE;
-            col = location % SIDE;
-        } while (board[row][col] != null);
-
-        //80% de chance de spawnar 2 / 20% de chance de spawnar 4
-        int value = random.nextInt(10);
-        if (value < 8) {
-            value = value1;
-        } else {
-            value = value2;
-        }
-
-        //Posição recebe a tile
-        board[row][col] = new Tile(value, getTileX(col), getTileY(row));
-
-    }
-
-    //========================================================================//
-    //Arruma a velocidade para nao atrapalhar/bugar a animação de movimentacao
-    private void resetPosition(Tile current, int row, int col) {
-        if (current == null) {
-            return;
-        }
-
-        int x = getTileX(col);
-        int y = getTileY(row);
-        int X = current.getX() - x;
-        int Y = current.getY() - y;
-
-        if (Math.abs(X) < Tile.SPEED) {
-            current.setX(current.getX() - X); //para nao ter flic na animacao 
-        }
-        if (Math.abs(Y) < Tile.SPEED) {
-            current.setY(current.getY() - Y); //para nao ter flic na animacao 
-        }
-
-        if (X < 0) {
-            current.setX(current.getX() + Tile.SPEED);
-        }
-        if (Y < 0) {
-            current.setY(current.getY() + Tile.SPEED);
-        }
-        if (X > 0) {
-            current.setX(current.getX() - Tile.SPEED);
-        }
-        if (Y > 0) {
-            current.setY(current.getY() - Tile.SPEED);
-        }
-    }
-
-    //========================================================================//
-    //Checa se é possivel mover as peças
-    private boolean move(int row, int col, int horizontal, int vertical, int dir) {
-        boolean canMove = false;
-
-        Tile tile = board[row][col];
-        if (tile == null) {
-            return false;
-        }
-        boolean move = true;
-        int Col = col;
-        int Row = row;
-
-        while (move) {
-            Col = Col + horizontal;
-            Row = Row + vertical;
-            if (outOfBounds(dir, Row, Col)) {
-                break;
-            }
-            if (board[Row][Col] == null) {
-                board[Row][Col] = tile;
-                board[Row - vertical][Col - horizontal] = null;
-
-                board[Row][Col].setSlideTo(new Point(Row, Col));
-                canMove = true;
-            } else if (board[Row][Col].getValue() == tile.getValue() && board[Row][Col].iscanCombine()) { //se da pra combinar
-                board[Row][Col].setCanCombine(false);
-                board[Row][Col].setValue(board[Row][Col].getValue() * 2);
-                canMove = true;
-                board[Row - vertical][Col - horizontal] = null;
-                board[Row][Col].setSlideTo(new Point(Row, Col));
-
-                board[Row][Col].setCombineAnimation(true);
-
-                currentScore = currentScore + board[Row][Col].getValue();
-            } else {            //senao estiver vazio ou nao poder unir com outro tile
-                board[Row][Col].setFrictionAnimation(true);
-                move = false;
-            }
-        }
-
-        return canMove;
-    }
-
-    //========================================================================//
-    //Checa limite do board
-    private boolean outOfBounds(int dir, int row, int col) {
-        if (dir == LEFT) {
-            return col < 0;
-        } else if (dir == RIGHT) {
-            return col > SIDE - 1;
-        } else if (dir == UP) {
-            return row < 0;
-        } else if (dir == DOWN) {
-            return row > SIDE - 1;
-        }
-        return false;
-    }
-
-    //========================================================================//
-    //Move as peças do jogo
-    private void moveLeft() {
-        boolean canMove = false;
-        int horizontal = -1;
-        int vertical = 0;
-
-        for (int i = 0; i < SIDE; i++) {
-            for (int j = 0; j < SIDE; j++) {
-                if (!canMove) {
-                    canMove = move(i, j, horizontal, vertical, LEFT);
-                } else {
-                    move(i, j, horizontal, vertical, LEFT);
-                }
-            }
-        }
-        for (int i = 0; i < SIDE; i++) {
-            for (int j = 0; j < SIDE; j++) {
-                Tile current = board[i][j];
-                if (current == null) {
-                    continue;
-                }
-                current.setCanCombine(true);
-            }
-        }
-        if (canMove) {
-            spawnRandomTile(2, 4);
-            checkDead();
-            checkWin();
-        }
-    }
-
-    private void moveRight() {
-        boolean canMove = false;
-        int horizontal = 1;
-        int vertical = 0;
-
-        for (int i = 0; i < SIDE; i++) {
-            for (int j = SIDE - 1; j >= 0; j--) {
-                if (!canMove) {
-                    canMove = move(i, j, horizontal, vertical, RIGHT);
-                } else {
-                    move(i, j, horizontal, vertical, RIGHT);
-                }
-            }
-        }
-        for (int i = 0; i < SIDE; i++) {
-            for (int j = 0; j < SIDE; j++) {
-                Tile current = board[i][j];
-                if (current == null) {
-                    continue;
-                }
-                current.setCanCombine(true);
-            }
-        }
-        if (canMove) {
-            spawnRandomTile(2, 4);
-            checkDead();
-            checkWin();
-        }
-    }
-
-    private void moveUp() {
-        boolean canMove = false;
-        int horizontal = 0;
-        int vertical = -1;
-
-        for (int i = 0; i < SIDE; i++) {
-            for (int j = 0; j < SIDE; j++) {
-                if (!canMove) {
-                    canMove = move(i, j, horizontal, vertical, UP);
-                } else {
-                    move(i, j, horizontal, vertical, UP);
-                }
-            }
-        }
-        for (int i = 0; i < SIDE; i++) {
-            for (int j = 0; j < SIDE; j++) {
-                Tile current = board[i][j];
-                if (current == null) {
-                    continue;
-                }
-                current.setCanCombine(true);
-            }
-        }
-        if (canMove) {
-            spawnRandomTile(2, 4);
-            checkDead();
-            checkWin();
-        }
-    }
-
-    private void moveDown() {
-        boolean canMove = false;
-        int horizontal = 0;
-        int vertical = 1;
-
-        for (int i = SIDE - 1; i >= 0; i--) {
-            for (int j = 0; j < SIDE; j++) {
-                if (!canMove) {
-                    canMove = move(i, j, horizontal, vertical, DOWN);
-                } else {
-                    move(i, j, horizontal, vertical, DOWN);
-                }
-            }
-        }
-        for (int i = 0; i < SIDE; i++) {
-            for (int j = 0; j < SIDE; j++) {
-                Tile current = board[i][j];
-                if (current == null) {
-                    continue;
-                }
-                current.setCanCombine(true);
-            }
-        }
-        if (canMove) {
-            spawnRandomTile(2, 4);
-            checkDead();
-            checkWin();
-        }
-    }
-
-    //========================================================================//
-    /*
-     Checa fim do jogo, percorre todas as peças checando a combinação nos arredores
-     Se não houver cobinação possível, fim do jogo */
-    public boolean checkDead() {
-        for (int i = 0; i < SIDE; i++) {
-            for (int j = 0; j < SIDE; j++) {
-                if (board[i][j] == null) {
-                    return false;
-                }
-                if (checkSurroundingTiles(i, j, board[i][j])) {
-                    return false;
-                }
-            }
-        }
-
-        if (currentScore >= highScore) {
-            highScore = currentScore;
-        }
-        setScore();
-
-        return true;
-    }
-
-    //========================================================================//
-    //Checa se houve vitoria
-    public boolean checkWin() {
-        if (winGame) {
-            if (currentScore >= highScore) {
-                highScore = currentScore;
-            }
-            setScore();
-            return winGame;
-        }
-        return false;
-    }
-
-    //========================================================================//
-    //Checa arredores das peças
-    private boolean checkSurroundingTiles(int row, int col, Tile current) {
-        if (row > 0) {
-            Tile check = board[row - 1][col];
-            if (check == null) {
-                return true;
-            }
-            if (current.getValue() == check.getValue()) {
-                return true;
-            }
-        }
-        if (row < SIDE - 1) {
-            Tile check = board[row + 1][col];
-            if (check == null) {
-                return true;
-            }
-            if (current.getValue() == check.getValue()) {
-                return true;
-            }
-        }
-        if (col > 0) {
-            Tile check = board[row][col - 1];
-            if (check == null) {
-                return true;
-            }
-            if (current.getValue() == check.getValue()) {
-                return true;
-            }
-        }
-        if (col < SIDE - 1) {
-            Tile check = board[row][col + 1];
-            if (check == null) {
-                return true;
-            }
-            if (current.getValue() == check.getValue()) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    //========================================================================//
-    //Checa qual tecla foi pressionada para mover a peça
-    private void typedKeysLeft() {
-        if (!winGame) {       //se o jogo for ganho nao permite o jogardor mover a peças
-            if (KeyboardInput.keyTyped(KeyEvent.VK_LEFT)) {
-                moveLeft();
-                if (!gameStarted) {
-                    gameStarted = true;
-                }
-            }
-            if (KeyboardInput.keyTyped(KeyEvent.VK_A)) {
-                moveLeft();
-                if (!gameStarted) {
-                    gameStarted = true;
-                }
-            }
-        }
-    }
-
-    private void typedKeysRight() {
-        if (!winGame) {
-            if (KeyboardInput.keyTyped(KeyEvent.VK_RIGHT)) {
-                moveRight();
-                if (!gameStarted) {
-                    gameStarted = true;
-                }
-            }
-
-            if (KeyboardInput.keyTyped(KeyEvent.VK_D)) {
-                moveRight();
-                if (!gameStarted) {
-                    gameStarted = true;
-                }
-            }
-
-        }
-    }
-
-    private void typedKeysUp() {
-        if (!winGame) {
-            if (KeyboardInput.keyTyped(KeyEvent.VK_UP)) {
-                moveUp();
-                if (!gameStarted) {
-                    gameStarted = true;
-                }
-            }
-
-            if (KeyboardInput.keyTyped(KeyEvent.VK_W)) {
-                moveUp();
-                if (!gameStarted) {
-                    gameStarted = true;
-                }
-            }
-
-        }
-    }
-
-    private void typedKeysDown() {
-        if (!winGame) {
-            if (KeyboardInput.keyTyped(KeyEvent.VK_DOWN)) {
-                moveDown();
-                if (!gameStarted) {
-                    gameStarted = true;
-                }
-            }
-
-            if (KeyboardInput.keyTyped(KeyEvent.VK_S)) {
-                moveDown();
-                if (!gameStarted) {
-                    gameStarted = true;
-                }
-            }
-
-        }
-    }
-
-    
-    //Movimenta o jogo de acordo com o que estiver escrito no arquivo
-    public void checkWebServ() { 
-
-        try {
-            movement = mov.sendGet();
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-
-        if (movement.toString().contains("cima") || movement.toString().contains("up")) {
-            moveUp();
-        } else if (movement.toString().contains("baixo") || movement.toString().contains("down")) {
-            moveDown();
-        } else if (movement.toString().contains("esquerda") || movement.toString().contains("left")) {
-            moveLeft();
-        } else if (movement.toString().contains("direita") || movement.toString().contains("right")) {
-            moveRight();
-        }
-
-    }
-    
-    //========================GETTERS e SETTERS===============================//
-    public int getTileX(int col) {
-        return SPACING + col * Tile.WIDTH + col * SPACING;
-    }
-
-    public int getTileY(int row) {
-        return SPACING + row * Tile.HEIGHT + row * SPACING;
-    }
-
-}
+package pkg2048;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Random;
+import pkg2048.Servidor.RemoteMoveClient;
+
+//========================================================================//
+public class Gameboard extends HighScore{
+
+    //Usado para o microserviço: as direções chegam por uma thread separada
+    private static final int REMOTE_QUEUE_SIZE = 64;
+    private static final long REMOTE_POLL_INTERVAL = 15;   //ms
+    private static final long REMOTE_MAX_BACKOFF = 5000;   //ms, com o servidor fora do ar
+    private RemoteMoveClient remoteMoves = new RemoteMoveClient(REMOTE_QUEUE_SIZE, REMOTE_POLL_INTERVAL, REMOTE_MAX_BACKOFF);
+    
+    //Direções
+    public static final int LEFT = GameEngine.LEFT;
+    public static final int RIGHT = GameEngine.RIGHT;
+    public static final int UP = GameEngine.UP;
+    public static final int DOWN = GameEngine.DOWN;
+
+    //Board será 4x4
+    public static final int SIDE = 4;
+
+    //Numero de blocos iniciais 
+    private int startingTile = 2;
+
+    //Regras e estado do jogo, o Gameboard só desenha e controla
+    private GameEngine engine = new BitboardEngine();
+
+    //Peças desenhadas na tela, acompanham o estado
+    private Tile[][] board;
+
+    //Peças fora do board, reaproveitadas no spawn para o movimento não alocar
+    private Tile[] tilePool = new Tile[SIDE * SIDE];
+    private int poolSize;
+
+    //Gerador das sementes das partidas, pode ser passado com semente fixa
+    private Random random;
+
+    //Gerador das peças da partida atual (o estado dele vai no SaveGame)
+    private GameRandom spawnRandom = new GameRandom();
+
+    //Partida em andamento gravada a cada movimento (null = não grava nem continua a ultima)
+    private SaveGame save;
+
+    //Placar (null = partidas não são registradas, ex: benchmarks)
+    private Leaderboard leaderboard;
+
+    //Partida atual: semente sorteada no inicio (as peças saem dela), movimentos e inicio do primeiro movimento
+    private long gameSeed;
+    private int moves;
+    private long gameStart;
+
+    //Só partidas normais vão para o placar (não o easter egg nem estados carregados), uma vez cada
+    private boolean recordGame;
+
+    //Direções da partida atual, gravadas no ReplayLog quando ela acaba (null = não grava)
+    //Sem ReplayLog as direções nem são guardadas: o movimento não aloca (o array do replay só cresce)
+    private ReplayLog replays;
+    private Replay replay = new Replay();
+    private boolean recordReplay;
+
+    //Estados da partida para desfazer/refazer (arrays primitivos, sem alocação por movimento)
+    private MoveHistory history = new MoveHistory(MoveHistory.DEFAULT_DEPTH);
+    private boolean usedUndo;
+
+    //Replay sendo mostrado na tela (null = partida normal), uma direção a cada REPLAY_INTERVAL updates
+    private Replay watching;
+    private int watchPosition;
+    private int watchTicks;
+    private static final int REPLAY_INTERVAL = 5;
+
+    //Verifica e vitoria
+    private boolean winGame;
+
+    //Para criar Gameboard
+    private BufferedImage gameBoard;
+
+    //Imagem onde o board e as peças são montados a cada frame (reaproveitada)
+    private BufferedImage frame;
+
+    //Cores de fundo do board e do bloco
+    private Color backgroundBoard = new Color(0xDCDCDC);
+    private Color backgroundTile = new Color(0xD8BFD8);
+
+    //Posição para desenhar na tela
+    private int x;
+    private int y;
+
+    //Espaçamento entre as peças
+    private static int SPACING = 10;
+
+    //Altura e largura em pixel do board
+    public static int BOARD_WIDTH = (SIDE + 1) * SPACING + SIDE * Tile.WIDTH;
+    public static int BOARD_HEIGHT = (SIDE + 1) * SPACING + SIDE * Tile.HEIGHT;
+
+    //Verifica se o jogo iniciou
+    private boolean gameStarted;
+
+    //Jogador automatico (criado só quando o auto-play é ligado)
+    private ExpectimaxPlayer autoPlayer;
+    private boolean autoPlay;
+    private int autoPlayTicks;
+
+    //Updates entre jogadas automaticas e tempo maximo de busca por jogada (o update roda a 70/s)
+    private static final int AUTO_PLAY_INTERVAL = 5;
+    private static final long AUTO_PLAY_BUDGET = 8000000L; //8 ms
+
+    private Button newGame;
+    private MouseEvent e;
+
+    //currentScore e highScore vem do HighScore (declarar aqui de novo escondia os campos que são gravados)
+
+    //Cores do score
+    public Color scoreColor = new Color(0xA020F0);
+    public Color bestColor = new Color(0x191970);
+
+    //Fonte do score
+    public Font scoreFont;
+
+    //========================================================================//
+    public Gameboard(int x, int y) {
+        this(x, y, new Random(), Leaderboard.getInstance(), SaveGame.getInstance(), ReplayLog.getInstance());
+    }
+
+    public Gameboard(int x, int y, Random random) {
+        this(x, y, random, null, null, null);
+    }
+
+    public Gameboard(int x, int y, Random random, Leaderboard leaderboard, SaveGame save, ReplayLog replays) {
+        this.random = random;
+        this.leaderboard = leaderboard;
+        this.save = save;
+        this.replays = replays;
+        scoreFont = Game.main.deriveFont(30f);
+
+        this.x = x;
+        this.y = y;
+
+        board = new Tile[SIDE][SIDE];   //Board 4x4
+
+        //Pool com todas as peças que o board comporta
+        for (int i = 0; i < SIDE * SIDE; i++) {
+            tilePool[poolSize++] = new Tile(2, 0, 0);
+        }
+
+        gameBoard = new BufferedImage(BOARD_WIDTH, BOARD_HEIGHT, BufferedImage.TYPE_INT_RGB);
+        frame = new BufferedImage(BOARD_WIDTH, BOARD_HEIGHT, BufferedImage.TYPE_INT_ARGB);
+
+        loadScore();
+        createBoardImage();
+        if (!resumeGame()) {
+            startGame();
+        }
+    }
+
+    //========================================================================//
+    //funcao que checa updates, seja de teclas pressionadas, um novo highscore, ou se houve vitoria
+    public void update() {
+        if (watching != null) {
+            stepReplay();
+        } else {
+            typedKeysLeft();
+            typedKeysRight();
+            typedKeysUp();
+            typedKeysDown();
+            checkWebServ();
+            autoPlay();
+        }
+
+        if (watching == null && currentScore >= highScore) {
+            highScore = currentScore;
+        }
+
+        for (int row = 0; row < SIDE; row++) {
+            for (int col = 0; col < SIDE; col++) {
+                Tile current = board[row][col];
+                if (current == null) {
+                    continue;
+                }
+                current.update();
+                //reset the position
+                resetPosition(current, row, col);
+            }
+        }
+
+        if (engine.isWon()) {
+            winGame = true;
+        }
+    }
+
+    //========================================================================//
+    //Desenha coisas como o Score atual, e o recorde(highscore) salvo no arquivo
+    public void draw(Graphics2D g) {
+
+        //O fundo é opaco e cobre o frame inteiro, não precisa limpar antes
+        Graphics2D g2d = (Graphics2D) frame.getGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g2d.drawImage(gameBoard, 0, 0, null);
+
+        for (int row = 0; row < SIDE; row++) {
+            for (int col = 0; col < SIDE; col++) {
+                Tile currently = board[row][col];
+                if (currently == null) {
+                    continue;
+                }
+                currently.draw(g2d);
+            }
+        }
+
+        g.drawImage(frame, x, y, null);
+        g2d.dispose();
+
+        g.setColor(scoreColor);
+        g.setFont(scoreFont);
+        g.drawString("PONTUAÇÃO: " + currentScore, 30, 40);   //g.drawString(score, horizontal, vertical);
+        g.setColor(bestColor);
+        g.drawString("RECORDE: " + highScore, Game.WIDTH - MessageSize.getStringWidth("RECORDE", scoreFont, g) - 341, 80);
+    }
+
+    //==============================RESET=====================================//
+    //Reseta informações quando o usuário selecionar jogar novamente
+    public void resetBoard() {
+        watching = null;
+        engine.reset();
+        clearTiles();
+        startGame();
+        winGame = false;
+        gameStarted = false;
+        currentScore = 0;
+    }
+
+    public void resetBoardEasterEgg() {
+        watching = null;
+        engine.reset();
+        clearTiles();
+        startEasterEgg();
+        winGame = false;
+        gameStarted = false;
+        currentScore = 0;
+    }
+
+    //Devolve todas as peças para o pool
+    private void clearTiles() {
+        for (int row = 0; row < SIDE; row++) {
+            for (int col = 0; col < SIDE; col++) {
+                releaseTile(board[row][col]);
+                board[row][col] = null;
+            }
+        }
+    }
+
+    //================================POOL====================================//
+    private Tile obtainTile(int value, int row, int col) {
+        if (poolSize == 0) {
+            return new Tile(value, getTileX(col), getTileY(row));
+        }
+        Tile tile = tilePool[--poolSize];
+        tilePool[poolSize] = null;
+        tile.reset(value, getTileX(col), getTileY(row));
+        return tile;
+    }
+
+    private void releaseTile(Tile tile) {
+        if (tile != null && poolSize < tilePool.length) {
+            tilePool[poolSize++] = tile;
+        }
+    }
+
+    //========================================================================//
+    //Cria background do Board
+    private void createBoardImage() {
+        Graphics2D g2d = (Graphics2D) gameBoard.getGraphics();
+
+        //Cor de fundo do Board
+        g2d.setColor(backgroundBoard);
+        g2d.fillRect(0, 0, BOARD_WIDTH, BOARD_HEIGHT);
+
+        //Cor de fundo de cada bloco 
+        g2d.setColor(backgroundTile);
+
+        for (int row = 0; row < SIDE; row++) {
+            for (int col = 0; col < SIDE; col++) {
+                int x = SPACING + SPACING * col + Tile.WIDTH * col;
+                int y = SPACING + SPACING * row + Tile.HEIGHT * row;
+                g2d.fillRect(x, y, Tile.WIDTH, Tile.HEIGHT);
+            }
+        }
+
+    }
+
+    //========================================================================//
+    //Inicia spawnando blocos 2 , 4
+    private void startGame() {
+        newSeed();
+        recordGame = true;
+        for (int i = 0; i < startingTile; i++) {
+            spawnRandomTile(2, 4);
+        }
+        history.reset(engine.getState(), engine.getScore(), spawnRandom.getState());
+        saveGame();
+    }
+
+    //inicia spawnando blocos 1024 , 1024
+    private void startEasterEgg() {
+        newSeed();
+        recordGame = false;
+        for (int i = 0; i < startingTile; i++) {
+            spawnRandomTile(1024, 1024);
+        }
+        history.reset(engine.getState(), engine.getScore(), spawnRandom.getState());
+        saveGame();
+    }
+
+    //Cada partida tem a sua semente (tirada do gerador do jogo): com ela e as jogadas a partida se repete
+    private void newSeed() {
+        gameSeed = random.nextLong();
+        spawnRandom.setSeed(gameSeed);
+        moves = 0;
+        replay.reset(gameSeed);
+        recordReplay = replays != null;
+        usedUndo = false;
+    }
+
+    //==============================SAVE======================================//
+    //Grava a partida atual no arquivo mapeado (só memoria, chamado a cada movimento)
+    private void saveGame() {
+        if (save == null) {
+            return;
+        }
+        long elapsed = moves == 0 ? 0 : System.currentTimeMillis() - gameStart;
+        save.write(engine.getState(), engine.getScore(), moves, spawnRandom.getState(), gameSeed, elapsed,
+                (recordGame ? SaveGame.FLAG_RECORD : 0) | (usedUndo ? SaveGame.FLAG_UNDO : 0));
+    }
+
+    //Continua a partida gravada, se ela ainda não acabou (perdida ou ganha)
+    private boolean resumeGame() {
+        if (save == null || !save.load()) {
+            return false;
+        }
+        long state = save.getBoard();
+        if (state == 0 || Bitboard.isDead(state) || Bitboard.maxExponent(state) >= Bitboard.WIN_EXPONENT) {
+            return false;
+        }
+        engine.setState(state, save.getScore());
+        currentScore = save.getScore();
+        moves = save.getMoves();
+        gameSeed = save.getSeed();
+        spawnRandom.setState(save.getRandomState());
+        gameStart = System.currentTimeMillis() - save.getElapsedMillis();
+        recordGame = (save.getFlags() & SaveGame.FLAG_RECORD) != 0;
+        usedUndo = (save.getFlags() & SaveGame.FLAG_UNDO) != 0;
+        replay.reset(gameSeed);
+        recordReplay = replays != null && save.readMoves(replay, moves);
+        history.reset(state, currentScore, spawnRandom.getState());
+        gameStarted = moves > 0;
+        syncTiles();
+        return true;
+    }
+
+    //========================================================================//
+    //Spawn randomico, o engine escolhe a casa e a peça aparece na tela
+    void spawnRandomTile(int value1, int value2) {
+        if (engine.spawn(spawnRandom, value1, value2)) {
+            syncTiles();
+        }
+    }
+
+    //========================================================================//
+    //Arruma a velocidade para nao atrapalhar/bugar a animação de movimentacao
+    private void resetPosition(Tile current, int row, int col) {
+        if (current == null) {
+            return;
+        }
+
+        int x = getTileX(col);
+        int y = getTileY(row);
+        int X = current.getX() - x;
+        int Y = current.getY() - y;
+
+        if (Math.abs(X) < Tile.SPEED) {
+            current.setX(current.getX() - X); //para nao ter flic na animacao 
+        }
+        if (Math.abs(Y) < Tile.SPEED) {
+            current.setY(current.getY() - Y); //para nao ter flic na animacao 
+        }
+
+        if (X < 0) {
+            current.setX(current.getX() + Tile.SPEED);
+        }
+        if (Y < 0) {
+            current.setY(current.getY() + Tile.SPEED);
+        }
+        if (X > 0) {
+            current.setX(current.getX() - Tile.SPEED);
+        }
+        if (Y > 0) {
+            current.setY(current.getY() - Tile.SPEED);
+        }
+    }
+
+    //========================================================================//
+    //Desliza a peça na tela (somente animação, o estado é calculado pelo engine)
+    private boolean move(int row, int col, int horizontal, int vertical, int dir) {
+        boolean canMove = false;
+
+        Tile tile = board[row][col];
+        if (tile == null) {
+            return false;
+        }
+        boolean move = true;
+        int Col = col;
+        int Row = row;
+
+        while (move) {
+            Col = Col + horizontal;
+            Row = Row + vertical;
+            if (outOfBounds(dir, Row, Col)) {
+                break;
+            }
+            if (board[Row][Col] == null) {
+                board[Row][Col] = tile;
+                board[Row - vertical][Col - horizontal] = null;
+
+                board[Row][Col].setSlideTo(Row, Col);
+                canMove = true;
+            } else if (board[Row][Col].getValue() == tile.getValue() && board[Row][Col].iscanCombine()) { //se da pra combinar
+                board[Row][Col].setCanCombine(false);
+                board[Row][Col].setValue(board[Row][Col].getValue() * 2);
+                canMove = true;
+                board[Row - vertical][Col - horizontal] = null;
+                board[Row][Col].setSlideTo(Row, Col);
+                releaseTile(tile);
+
+                board[Row][Col].setCombineAnimation(true);
+            } else {            //senao estiver vazio ou nao poder unir com outro tile
+                board[Row][Col].setFrictionAnimation(true);
+                move = false;
+            }
+        }
+
+        return canMove;
+    }
+
+    //========================================================================//
+    //Checa limite do board
+    private boolean outOfBounds(int dir, int row, int col) {
+        if (dir == LEFT) {
+            return col < 0;
+        } else if (dir == RIGHT) {
+            return col > SIDE - 1;
+        } else if (dir == UP) {
+            return row < 0;
+        } else if (dir == DOWN) {
+            return row > SIDE - 1;
+        }
+        return false;
+    }
+
+    //========================================================================//
+    //Move as peças do jogo (visiveis no pacote para os benchmarks)
+    void moveLeft() {
+        moveBoard(LEFT);
+    }
+
+    void moveRight() {
+        moveBoard(RIGHT);
+    }
+
+    void moveUp() {
+        moveBoard(UP);
+    }
+
+    void moveDown() {
+        moveBoard(DOWN);
+    }
+
+    //Arrasta as peças da tela e aplica o movimento no engine
+    private void moveBoard(int dir) {
+        slideTiles(dir);
+
+        if (engine.apply(dir)) {
+            if (moves++ == 0) {
+                gameStart = System.currentTimeMillis();
+            }
+            currentScore = engine.getScore();
+            syncTiles();
+            spawnRandomTile(2, 4);
+            checkDead();
+            checkWin();
+            if (watching != null) {
+                return;     //replay na tela: nada é gravado
+            }
+            if (recordReplay) {
+                replay.add(dir);
+            }
+            history.push(engine.getState(), engine.getScore(), spawnRandom.getState(), dir);
+            if (save != null) {
+                save.writeMove(moves - 1, dir);
+            }
+            if (engine.isDead() || engine.isWon()) {
+                recordGame();
+            }
+            saveGame();
+        }
+    }
+
+    //Partida terminou (derrota ou vitoria): vai para o placar e os replays, o disco fica para a thread de gravação
+    private void recordGame() {
+        if (!recordGame) {
+            return;
+        }
+        recordGame = false;
+        if (leaderboard != null) {
+            try {
+                leaderboard.add(currentScore, Bitboard.maxExponent(engine.getState()), moves,
+                        (int) (System.currentTimeMillis() - gameStart), gameSeed,
+                        (autoPlay ? LeaderboardEntry.FLAG_AUTO_PLAY : 0) | (usedUndo ? LeaderboardEntry.FLAG_UNDO : 0));
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        replay.finish(engine.getState(), engine.getScore());
+
+        final Leaderboard savedLeaderboard = leaderboard;
+        final ReplayLog savedReplays = recordReplay ? replays : null;
+        final Replay finished = savedReplays != null ? replay.copy() : null;
+        if (savedLeaderboard == null && savedReplays == null) {
+            return;
+        }
+        writeLater(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    if (savedLeaderboard != null) {
+                        savedLeaderboard.flush();
+                    }
+                    if (savedReplays != null) {
+                        savedReplays.append(finished);
+                    }
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        });
+    }
+
+    //===========================DESFAZER=====================================//
+    /*
+     Volta o board, o score e o gerador das peças para antes do ultimo movimento.
+     O replay perde esse movimento, então continua batendo com a partida.
+     Não funciona depois do fim da partida (ela ja foi para o placar) nem em replay.
+     */
+    public boolean undo() {
+        if (!canChangeHistory() || !history.undo()) {
+            return false;
+        }
+        moves--;
+        if (recordReplay) {
+            replay.removeLast();
+        }
+        usedUndo = true;
+        restoreHistory();
+        return true;
+    }
+
+    //Refaz o ultimo movimento desfeito (um movimento novo descarta o que podia ser refeito)
+    public boolean redo() {
+        if (!canChangeHistory() || !history.redo()) {
+            return false;
+        }
+        int dir = history.getDirection();
+        moves++;
+        if (recordReplay) {
+            replay.add(dir);
+        }
+        if (save != null) {
+            save.writeMove(moves - 1, dir);
+        }
+        restoreHistory();
+        return true;
+    }
+
+    private boolean canChangeHistory() {
+        return watching == null && !winGame && !engine.isDead();
+    }
+
+    private void restoreHistory() {
+        engine.setState(history.getBoard(), history.getScore());
+        currentScore = history.getScore();
+        spawnRandom.setState(history.getRandomState());
+        syncTiles();
+        saveGame();
+    }
+
+    //==============================REPLAY====================================//
+    //Mostra uma partida gravada: mesma semente e mesmas direções, com a animação normal
+    //A partida deste board é descartada, a PlayPanel usa um board só para os replays
+    public void startReplay(Replay replay) {
+        engine.reset();
+        clearTiles();
+        watching = replay;
+        watchPosition = 0;
+        watchTicks = 0;
+        spawnRandom.setSeed(replay.getSeed());
+        moves = 0;
+        recordGame = false;
+        for (int i = 0; i < startingTile; i++) {
+            spawnRandomTile(2, 4);
+        }
+        winGame = false;
+        gameStarted = false;
+        currentScore = 0;
+        autoPlay = false;
+    }
+
+    private void stepReplay() {
+        if (watchPosition == watching.getCount() || ++watchTicks < REPLAY_INTERVAL) {
+            return;
+        }
+        watchTicks = 0;
+        moveBoard(watching.getMove(watchPosition++));
+    }
+
+    public boolean isReplaying() {
+        return watching != null;
+    }
+
+    //Percorre as peças na ordem da direção, a partir da parede para onde elas vão
+    private void slideTiles(int dir) {
+        int horizontal = dir == LEFT ? -1 : dir == RIGHT ? 1 : 0;
+        int vertical = dir == UP ? -1 : dir == DOWN ? 1 : 0;
+
+        for (int i = 0; i < SIDE; i++) {
+            for (int j = 0; j < SIDE; j++) {
+                int row = dir == DOWN ? SIDE - 1 - i : i;
+                int col = dir == RIGHT ? SIDE - 1 - j : j;
+                move(row, col, horizontal, vertical, dir);
+            }
+        }
+        for (int i = 0; i < SIDE; i++) {
+            for (int j = 0; j < SIDE; j++) {
+                Tile current = board[i][j];
+                if (current == null) {
+                    continue;
+                }
+                current.setCanCombine(true);
+            }
+        }
+    }
+
+    //Garante que as peças da tela tenham o mesmo valor do estado
+    private void syncTiles() {
+        long state = engine.getState();
+        for (int row = 0; row < SIDE; row++) {
+            for (int col = 0; col < SIDE; col++) {
+                int value = Bitboard.getValue(state, row, col);
+                Tile current = board[row][col];
+                if (value == 0) {
+                    releaseTile(current);
+                    board[row][col] = null;
+                } else if (current == null) {
+                    board[row][col] = obtainTile(value, row, col);
+                } else if (current.getValue() != value) {
+                    current.setValue(value);
+                }
+            }
+        }
+    }
+
+    //========================================================================//
+    /*
+     Checa fim do jogo, sem casa vazia e sem combinação possível nos arredores
+     (calculado sobre o estado compactado) */
+    public boolean checkDead() {
+        if (!engine.isDead()) {
+            return false;
+        }
+
+        if (watching == null) {     //o score de um replay não vira recorde
+            if (currentScore >= highScore) {
+                highScore = currentScore;
+            }
+            setScore();
+        }
+
+        return true;
+    }
+
+    //========================================================================//
+    //Checa se houve vitoria
+    public boolean checkWin() {
+        if (winGame) {
+            if (watching == null) {
+                if (currentScore >= highScore) {
+                    highScore = currentScore;
+                }
+                setScore();
+            }
+            return winGame;
+        }
+        return false;
+    }
+
+    //========================================================================//
+    //Checa qual tecla foi pressionada para mover a peça
+    private void typedKeysLeft() {
+        if (!winGame) {       //se o jogo for ganho nao permite o jogardor mover a peças
+            if (KeyboardInput.keyTyped(KeyEvent.VK_LEFT)) {
+                moveLeft();
+                if (!gameStarted) {
+                    gameStarted = true;
+                }
+            }
+            if (KeyboardInput.keyTyped(KeyEvent.VK_A)) {
+                moveLeft();
+                if (!gameStarted) {
+                    gameStarted = true;
+                }
+            }
+        }
+    }
+
+    private void typedKeysRight() {
+        if (!winGame) {
+            if (KeyboardInput.keyTyped(KeyEvent.VK_RIGHT)) {
+                moveRight();
+                if (!gameStarted) {
+                    gameStarted = true;
+                }
+            }
+
+            if (KeyboardInput.keyTyped(KeyEvent.VK_D)) {
+                moveRight();
+                if (!gameStarted) {
+                    gameStarted = true;
+                }
+            }
+
+        }
+    }
+
+    private void typedKeysUp() {
+        if (!winGame) {
+            if (KeyboardInput.keyTyped(KeyEvent.VK_UP)) {
+                moveUp();
+                if (!gameStarted) {
+                    gameStarted = true;
+                }
+            }
+
+            if (KeyboardInput.keyTyped(KeyEvent.VK_W)) {
+                moveUp();
+                if (!gameStarted) {
+                    gameStarted = true;
+                }
+            }
+
+        }
+    }
+
+    private void typedKeysDown() {
+        if (!winGame) {
+            if (KeyboardInput.keyTyped(KeyEvent.VK_DOWN)) {
+                moveDown();
+                if (!gameStarted) {
+                    gameStarted = true;
+                }
+            }
+
+            if (KeyboardInput.keyTyped(KeyEvent.VK_S)) {
+                moveDown();
+                if (!gameStarted) {
+                    gameStarted = true;
+                }
+            }
+
+        }
+    }
+
+    
+    //Joga sozinho, uma jogada a cada AUTO_PLAY_INTERVAL updates
+    private void autoPlay() {
+        if (!autoPlay || winGame) {
+            return;
+        }
+        autoPlayTicks++;
+        if (autoPlayTicks < AUTO_PLAY_INTERVAL) {
+            return;
+        }
+        autoPlayTicks = 0;
+
+        int dir = autoPlayer.bestMove(engine.getState());
+        if (dir == -1) {    //fim de jogo
+            autoPlay = false;
+            return;
+        }
+        moveBoard(dir);
+        if (!gameStarted) {
+            gameStarted = true;
+        }
+    }
+
+    //Movimenta o jogo com as direções recebidas do servidor, sem esperar pela rede
+    public void checkWebServ() {
+        remoteMoves.start();
+
+        int dir;
+        while ((dir = remoteMoves.poll()) != -1) {
+            if (winGame) {
+                continue;   //descarta, igual ao teclado depois da vitoria
+            }
+            moveBoard(dir);
+            if (!gameStarted) {
+                gameStarted = true;
+            }
+        }
+    }
+
+    //========================GETTERS e SETTERS===============================//
+    public GameEngine getEngine() {
+        return engine;
+    }
+
+    //Troca o estado do jogo e refaz as peças da tela a partir dele
+    //O estado não sai da semente: a partida não vai para o placar nem para os replays, e o historico recomeça nele
+    public void loadState(long state, int score) {
+        engine.setState(state, score);
+        currentScore = score;
+        recordGame = false;
+        moves = 0;
+        replay.reset(gameSeed);
+        recordReplay = false;
+        history.reset(state, score, spawnRandom.getState());
+        winGame = engine.isWon();
+        syncTiles();
+    }
+
+    public boolean isAutoPlay() {
+        return autoPlay;
+    }
+
+    public void setAutoPlay(boolean autoPlay) {
+        if (autoPlay && autoPlayer == null) {
+            autoPlayer = new ExpectimaxPlayer(18, AUTO_PLAY_BUDGET);
+        }
+        this.autoPlay = autoPlay;
+        autoPlayTicks = 0;
+    }
+
+    public int getTileX(int col) {
+        return SPACING + col * Tile.WIDTH + col * SPACING;
+    }
+
+    public int getTileY(int row) {
+        return SPACING + row * Tile.HEIGHT + row * SPACING;
+    }
+
+}
@@ -0,0 +1,32 @@
+package pkg2048;
+
+import java.util.Random;
+
+//========================================================================//
+//Escolhe a direção que gera mais pontos agora (empate: a que deixa mais casas vazias)
+public class GreedyPolicy implements Policy {
+
+    @Override
+    public int chooseMove(long board, Random rng) {
+        int best = -1;
+        int bestScore = -1;
+        int bestEmpty = -1;
+
+        int start = rng.nextInt(4);
+        for (int i = 0; i < 4; i++) {
+            int dir = (start + i) & 3;
+            long moved = Bitboard.move(board, dir);
+            if (moved == board) {
+                continue;
+            }
+            int score = Bitboard.score(board, dir);
+            int empty = Bitboard.countEmpty(moved);
+            if (score > bestScore || (score == bestScore && empty > bestEmpty)) {
+                best = dir;
+                bestScore = score;
+                bestEmpty = empty;
+            }
+        }
+        return best;
+    }
+}
@@ -1,85 +1,159 @@
-package pkg2048;
-
-import java.awt.Color;
-import java.awt.Font;
-import java.io.BufferedWriter;
-import java.io.File;
-import java.io.FileWriter;
-import static java.lang.Integer.parseInt;
-import java.util.Formatter;
-import java.util.Scanner;
-
-public class HighScore {
-
-    //Controla score do jogo
-    public int currentScore;
-    public int highScore;
-
-    //Cores do score
-    public Color scoreColor = new Color(0xA020F0);
-    public Color bestColor = new Color(0x191970);
-
-    //Fonte do score
-    public Font scoreFont;
-
-    public HighScore() {
-    }
-
-    /*
-     Toda manipulção com arquivos necessita try-catch
-     Exemplo: não existencia do arquivo
-     */
-    //========================================================================//
-    //Função para criar o arquivo
-    public void createScore() {
-        try {
-            //Cria arquivo com sua localização e nome
-            File file = new File("build\\classes\\SaveHighScore.txt");
-
-            //Para poder escrever no arquivo
-            FileWriter fw = new FileWriter(file);
-            BufferedWriter bw = new BufferedWriter(fw);
-
-            bw.write("" + 0);
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-
-    }
-
-    //========================================================================//
-    //Função dar load no valor do arquivo
-    public void loadScore() {
-        try {
-            File file = new File("build\\classes\\SaveHighScore.txt");
-            Scanner sc = new Scanner(file);
-
-            //Se o arquivo não existe
-            if (!file.isFile()) {
-                createScore();
-            }
-
-            //Leitura do arquivo
-            highScore = parseInt(sc.next()); //String para inteiro
-
-            sc.close();
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-    }
-
-    //========================================================================//
-    //Função para escrever o novo 'highScore' no arquivo
-    public void setScore() {
-        FileWriter output = null;
-        try {
-
-            Formatter file = new Formatter("build\\classes\\SaveHighScore.txt");
-            file.format("" + highScore);
-            file.close();
-
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-    }
-}
+package pkg2048;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import static java.lang.Integer.parseInt;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Scanner;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+public class HighScore {
+
+    //Controla score do jogo
+    public int currentScore;
+    public int highScore;
+
+    //Cores do score
+    public Color scoreColor = new Color(0xA020F0);
+    public Color bestColor = new Color(0x191970);
+
+    //Fonte do score
+    public Font scoreFont;
+
+    //Arquivo do recorde: ~/.2048/SaveHighScore.txt (ou -D2048.highscore=caminho)
+    public static final File SCORE_FILE = new File(System.getProperty("2048.highscore",
+            System.getProperty("user.home") + File.separator + ".2048" + File.separator + "SaveHighScore.txt"));
+
+    //Onde o recorde ficava antes (pasta do projeto no NetBeans), lido só para não perder o valor antigo
+    private static final File LEGACY_FILE = new File("build" + File.separator + "classes", "SaveHighScore.txt");
+
+    /*
+     Uma thread só grava o arquivo (e o placar, ver writeLater), o loop do jogo nunca espera o disco.
+     Ao fechar o jogo o que estiver na fila ainda é gravado (shutdown hook).
+     */
+    private static final ExecutorService writer = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "highscore-writer");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+            @Override
+            public void run() {
+                writer.shutdown();
+                try {
+                    writer.awaitTermination(1, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }, "highscore-flush"));
+    }
+
+    //Ultimo valor pedido para gravar, as gravações na fila sempre escrevem o mais novo
+    private static volatile int pendingScore;
+
+    //Valor que ja esta (ou vai estar) no arquivo: setScore só grava quando muda
+    private int savedScore = -1;
+
+    public HighScore() {
+    }
+
+    //========================================================================//
+    //Função para criar o arquivo (com 0), gravado na hora
+    public void createScore() {
+        try {
+            write(0);
+            savedScore = 0;
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    //========================================================================//
+    //Função dar load no valor do arquivo (só na criação do board, fora do loop do jogo)
+    public void loadScore() {
+        File file = SCORE_FILE.isFile() ? SCORE_FILE : LEGACY_FILE.isFile() ? LEGACY_FILE : null;
+
+        //Se o arquivo não existe
+        if (file == null) {
+            highScore = 0;
+            createScore();
+            return;
+        }
+
+        try (Scanner sc = new Scanner(file, "UTF-8")) {
+            //Leitura do arquivo
+            highScore = parseInt(sc.next()); //String para inteiro
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+
+        //Recorde do caminho antigo é copiado para o novo
+        if (file == SCORE_FILE) {
+            savedScore = highScore;
+        } else {
+            setScore();
+        }
+    }
+
+    //========================================================================//
+    /*
+     Pede para gravar o 'highScore'. Se não mudou desde a ultima vez não faz nada
+     (checkDead/checkWin chamam isso a cada frame depois que o jogo acaba).
+     */
+    public void setScore() {
+        if (highScore == savedScore) {
+            return;
+        }
+        savedScore = highScore;
+        pendingScore = highScore;
+        writer.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    write(pendingScore);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        });
+    }
+
+    //Outras gravações do jogo (placar) na mesma thread, na ordem em que foram pedidas
+    protected static void writeLater(Runnable task) {
+        writer.execute(task);
+    }
+
+    //Grava em um arquivo temporario e troca pelo antigo de uma vez: o recorde nunca fica pela metade
+    private static void write(int score) throws IOException {
+        File dir = SCORE_FILE.getAbsoluteFile().getParentFile();
+        if (dir != null && !dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Não foi possivel criar " + dir);
+        }
+        File temp = new File(dir, SCORE_FILE.getName() + ".tmp");
+
+        try (OutputStream out = new FileOutputStream(temp)) {
+            out.write(Integer.toString(score).getBytes(StandardCharsets.UTF_8));
+        }
+        try {
+            Files.move(temp.toPath(), SCORE_FILE.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp.toPath(), SCORE_FILE.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
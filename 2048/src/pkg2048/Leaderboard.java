@@ -0,0 +1,529 @@
+package pkg2048;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+//========================================================================//
+/*
+ Placar local com todas as partidas terminadas (score, maior peça, movimentos, duração e semente).
+ As partidas vão para um log só de acrescimo, com registros de tamanho fixo, que nunca é reescrito.
+ Na memoria fica só o indice: as 'topSize' melhores partidas de cada maior peça (16 listas
+ ordenadas) e quantas partidas terminaram em cada uma. "Melhores com peça >= 4096" junta só as
+ listas de 4096 para cima, sem ler o arquivo; milhões de partidas do Simulator ocupam só o disco.
+
+ A cada flush o indice é gravado ao lado do log (.idx) com quantos registros ele cobre.
+ Ao abrir, lê o indice e só os registros que vieram depois; sem indice valido lê o log inteiro
+ uma vez, em blocos, sem guardar os registros que não entram no top.
+
+ Uso: java -cp 2048.jar pkg2048.Leaderboard [arquivo] [peça minima] [quantidade]
+ */
+public class Leaderboard {
+
+    //Arquivo do placar: ~/.2048/Leaderboard.dat (ou -D2048.leaderboard=caminho)
+    public static final File DEFAULT_FILE = new File(System.getProperty("2048.leaderboard",
+            System.getProperty("user.home") + File.separator + ".2048" + File.separator + "Leaderboard.dat"));
+
+    //Partidas guardadas no indice por maior peça (e maximo que uma consulta devolve)
+    public static final int TOP = 100;
+
+    //Expoentes de 0 a 15
+    private static final int TILES = 16;
+
+    //Cabeçalho do log e do indice: marca + versão
+    private static final int LOG_MAGIC = 0x32303438;    //"2048"
+    private static final int INDEX_MAGIC = 0x32303449;  //"204I"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 8;
+
+    /*
+     Registro (big-endian): semente(8) fim(8) score(4) movimentos(4) duração em ms(4)
+     maior expoente(1) flags(1) livre(2)
+     */
+    static final int RECORD_BYTES = 32;
+
+    //Registros juntados antes de ir para o disco (o Simulator grava em blocos de 64 KB)
+    private static final int BUFFER_RECORDS = 2048;
+
+    private static Leaderboard instance;
+
+    private final File file;
+    private final int topSize;
+    private FileChannel channel;    //null = só memoria
+
+    //Partidas no total, partidas ja no log e partidas cobertas pelo .idx gravado
+    private long count;
+    private long written;
+    private long indexed;
+
+    //Partidas novas e partidas sendo gravadas: o flush troca os dois e grava fora do monitor
+    private ByteBuffer pending = ByteBuffer.allocate(BUFFER_RECORDS * RECORD_BYTES);
+    private ByteBuffer flushing = ByteBuffer.allocate(BUFFER_RECORDS * RECORD_BYTES);
+
+    //Uma gravação de cada vez, para o log sair em ordem. Quem precisar dos dois pega este antes do monitor
+    private final Object flushLock = new Object();
+
+    //Indice: melhores partidas de cada maior peça, a melhor primeiro
+    private final LeaderboardEntry[][] top;
+    private final int[] topCount = new int[TILES];
+    private final long[] tileCount = new long[TILES];
+
+    //Muda a cada partida registrada (a tela do placar só refaz a lista quando muda)
+    private volatile long version;
+
+    //========================================================================//
+    //Placar só na memoria (nada é gravado)
+    public Leaderboard(int topSize) {
+        this.file = null;
+        this.topSize = topSize;
+        this.top = new LeaderboardEntry[TILES][topSize];
+    }
+
+    public Leaderboard(File file, int topSize) throws IOException {
+        this.file = file;
+        this.topSize = topSize;
+        this.top = new LeaderboardEntry[TILES][topSize];
+        open();
+    }
+
+    //Placar do jogo (DEFAULT_FILE), aberto na primeira chamada. Se o arquivo falhar fica só na memoria
+    public static synchronized Leaderboard getInstance() {
+        if (instance == null) {
+            try {
+                instance = new Leaderboard(DEFAULT_FILE, TOP);
+            } catch (IOException e) {
+                e.printStackTrace();
+                instance = new Leaderboard(TOP);
+            }
+        }
+        return instance;
+    }
+
+    public static void main(String[] args) throws IOException {
+        File file = args.length > 0 ? new File(args[0]) : DEFAULT_FILE;
+        int minTile = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+        int limit = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+        long start = System.nanoTime();
+        Leaderboard leaderboard = new Leaderboard(file, TOP);
+        double openMillis = (System.nanoTime() - start) / 1e6;
+        start = System.nanoTime();
+        List<LeaderboardEntry> best = leaderboard.getTop(limit, minTile);
+        double queryMicros = (System.nanoTime() - start) / 1e3;
+
+        System.out.printf("%d partidas, %d com peça >= %d (aberto em %.1f ms, consulta em %.1f us)%n",
+                leaderboard.size(), leaderboard.count(minTile), minTile, openMillis, queryMicros);
+        for (int i = 0; i < best.size(); i++) {
+            LeaderboardEntry entry = best.get(i);
+            System.out.printf("%3d. %7d  peça %5d  %6d movimentos  %8d ms  semente %d%n", i + 1, entry.getScore(),
+                    entry.getMaxTile(), entry.getMoves(), entry.getDurationMillis(), entry.getSeed());
+        }
+        leaderboard.close();
+    }
+
+    //==============================ABRIR=====================================//
+    private void open() throws IOException {
+        File dir = file.getAbsoluteFile().getParentFile();
+        if (dir != null && !dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Não foi possivel criar " + dir);
+        }
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        try {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                header.putInt(LOG_MAGIC).putInt(VERSION).flip();
+                channel.truncate(0);
+                writeFully(header, 0);
+                size = HEADER_BYTES;
+            } else {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                readFully(header, 0);
+                header.flip();
+                if (header.getInt() != LOG_MAGIC || header.getInt() != VERSION) {
+                    throw new IOException("Arquivo de placar invalido: " + file);
+                }
+            }
+
+            //Um registro pela metade (o jogo fechou no meio da gravação) é descartado
+            written = (size - HEADER_BYTES) / RECORD_BYTES;
+            if (offset(written) != size) {
+                channel.truncate(offset(written));
+            }
+            count = written;
+
+            indexed = loadIndex();
+            if (indexed == 0) {
+                clearIndex();
+            }
+            scan(indexed, written);
+        } catch (IOException e) {
+            channel.close();
+            channel = null;
+            throw e;
+        }
+    }
+
+    //Lê o .idx e devolve quantos registros ele cobre (0 se não existe ou não confere com o log)
+    private long loadIndex() {
+        File indexFile = getIndexFile();
+        if (!indexFile.isFile()) {
+            return 0;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+            if (in.readInt() != INDEX_MAGIC || in.readInt() != VERSION || in.readInt() != topSize) {
+                return 0;
+            }
+            long covered = in.readLong();
+            if (covered > written) {
+                return 0;   //log menor que o indice (apagado ou trocado): refaz
+            }
+            for (int tile = 0; tile < TILES; tile++) {
+                tileCount[tile] = in.readLong();
+            }
+
+            //As entradas do top são lidas do proprio log, o .idx só guarda os numeros dos registros
+            ByteBuffer record = ByteBuffer.allocate(RECORD_BYTES);
+            for (int tile = 0; tile < TILES; tile++) {
+                int n = in.readInt();
+                if (n > topSize) {
+                    return 0;
+                }
+                for (int i = 0; i < n; i++) {
+                    long index = in.readLong();
+                    if (index < 0 || index >= covered) {
+                        return 0;
+                    }
+                    record.clear();
+                    readFully(record, offset(index));
+                    record.flip();
+                    LeaderboardEntry entry = decode(index, record);
+                    if (entry.getMaxExponent() != tile) {
+                        return 0;
+                    }
+                    top[tile][i] = entry;
+                }
+                topCount[tile] = n;
+            }
+            return covered;
+        } catch (EOFException e) {
+            return 0;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return 0;
+        }
+    }
+
+    private void clearIndex() {
+        for (int tile = 0; tile < TILES; tile++) {
+            for (int i = 0; i < topCount[tile]; i++) {
+                top[tile][i] = null;
+            }
+            topCount[tile] = 0;
+            tileCount[tile] = 0;
+        }
+    }
+
+    //Passa os registros [from, to) do log pelo indice, um bloco de cada vez
+    private void scan(long from, long to) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_RECORDS * RECORD_BYTES);
+        long index = from;
+        while (index < to) {
+            int n = (int) Math.min(BUFFER_RECORDS, to - index);
+            buffer.clear();
+            buffer.limit(n * RECORD_BYTES);
+            readFully(buffer, offset(index));
+            buffer.flip();
+            for (int i = 0; i < n; i++) {
+                long seed = buffer.getLong();
+                long finishedAt = buffer.getLong();
+                int score = buffer.getInt();
+                int moves = buffer.getInt();
+                int durationMillis = buffer.getInt();
+                int maxExponent = buffer.get() & 0xF;
+                int flags = buffer.get() & 0xFF;
+                buffer.getShort();
+                offer(index++, score, maxExponent, moves, durationMillis, seed, finishedAt, flags);
+            }
+        }
+    }
+
+    private static LeaderboardEntry decode(long index, ByteBuffer record) {
+        long seed = record.getLong();
+        long finishedAt = record.getLong();
+        int score = record.getInt();
+        int moves = record.getInt();
+        int durationMillis = record.getInt();
+        int maxExponent = record.get() & 0xF;
+        int flags = record.get() & 0xFF;
+        return new LeaderboardEntry(index, score, maxExponent, moves, durationMillis, seed, finishedAt, flags);
+    }
+
+    //=============================REGISTRAR==================================//
+    /*
+     Registra uma partida terminada. Normalmente só mexe na memoria: o log é gravado no flush
+     ou quando o buffer enche (a cada BUFFER_RECORDS partidas), sem segurar o monitor no disco.
+     */
+    public void add(int score, int maxExponent, int moves, int durationMillis, long seed, int flags)
+            throws IOException {
+        long finishedAt = System.currentTimeMillis();
+        maxExponent &= 0xF;
+        while (true) {
+            synchronized (this) {
+                if (channel == null || pending.hasRemaining()) {
+                    if (channel != null) {
+                        pending.putLong(seed).putLong(finishedAt).putInt(score).putInt(moves).putInt(durationMillis)
+                                .put((byte) maxExponent).put((byte) flags).putShort((short) 0);
+                    }
+                    offer(count++, score, maxExponent, moves, durationMillis, seed, finishedAt, flags);
+                    version++;
+                    return;
+                }
+            }
+            //Buffer cheio: grava o log e tenta de novo
+            synchronized (flushLock) {
+                writePending();
+            }
+        }
+    }
+
+    /*
+     Coloca a partida no top da sua maior peça, se couber. O objeto só é criado quando entra:
+     com a lista cheia, uma partida pior que a ultima sai logo na primeira comparação.
+     No empate a partida mais antiga fica na frente.
+     */
+    private void offer(long index, int score, int maxExponent, int moves, int durationMillis,
+            long seed, long finishedAt, int flags) {
+        tileCount[maxExponent]++;
+        LeaderboardEntry[] list = top[maxExponent];
+        int n = topCount[maxExponent];
+
+        int position = n;
+        while (position > 0 && list[position - 1].getScore() < score) {
+            position--;
+        }
+        if (position == topSize) {
+            return;
+        }
+        int kept = Math.min(n, topSize - 1);
+        System.arraycopy(list, position, list, position + 1, kept - position);
+        list[position] = new LeaderboardEntry(index, score, maxExponent, moves, durationMillis, seed, finishedAt, flags);
+        if (n < topSize) {
+            topCount[maxExponent]++;
+        }
+    }
+
+    /*
+     Grava no log as partidas do buffer (chamar com o flushLock). O monitor só é pego para trocar os
+     buffers e contar o que foi gravado: add e as consultas não esperam o disco.
+     Se falhar as partidas continuam no buffer de gravação e vão primeiro na proxima tentativa.
+     */
+    private void writePending() throws IOException {
+        while (true) {
+            long position;
+            synchronized (this) {
+                if (channel == null) {
+                    return;
+                }
+                if (flushing.position() == 0) {
+                    if (pending.position() == 0) {
+                        return;
+                    }
+                    ByteBuffer swap = flushing;
+                    flushing = pending;
+                    pending = swap;
+                }
+                position = offset(written);
+            }
+            flushing.flip();
+            try {
+                writeFully(flushing, position);
+            } catch (IOException e) {
+                flushing.position(flushing.limit());
+                flushing.limit(flushing.capacity());
+                throw e;
+            }
+            synchronized (this) {
+                written += flushing.limit() / RECORD_BYTES;
+                flushing.clear();
+            }
+        }
+    }
+
+    //Manda para o disco o que estiver no buffer e grava o indice
+    public void flush() throws IOException {
+        synchronized (flushLock) {
+            writePending();
+
+            //Copia do indice; só quando tudo ja está no log (o .idx não pode citar partida que não está nele)
+            long covered;
+            long[] counts;
+            long[][] indices = new long[TILES][];
+            synchronized (this) {
+                if (channel == null || indexed == written || count != written) {
+                    return;
+                }
+                covered = written;
+                counts = tileCount.clone();
+                for (int tile = 0; tile < TILES; tile++) {
+                    indices[tile] = new long[topCount[tile]];
+                    for (int i = 0; i < topCount[tile]; i++) {
+                        indices[tile][i] = top[tile][i].getIndex();
+                    }
+                }
+            }
+            saveIndex(covered, counts, indices);
+            indexed = covered;
+        }
+    }
+
+    public void close() throws IOException {
+        synchronized (flushLock) {
+            try {
+                flush();
+            } finally {
+                synchronized (this) {
+                    if (channel != null) {
+                        channel.close();
+                        channel = null;
+                    }
+                }
+            }
+        }
+    }
+
+    //Grava a copia do indice em um arquivo temporario e troca pelo antigo de uma vez
+    private void saveIndex(long covered, long[] counts, long[][] indices) throws IOException {
+        File indexFile = getIndexFile();
+        File temp = new File(indexFile.getPath() + ".tmp");
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            out.writeInt(INDEX_MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(topSize);
+            out.writeLong(covered);
+            for (int tile = 0; tile < TILES; tile++) {
+                out.writeLong(counts[tile]);
+            }
+            for (int tile = 0; tile < TILES; tile++) {
+                out.writeInt(indices[tile].length);
+                for (long index : indices[tile]) {
+                    out.writeLong(index);
+                }
+            }
+        }
+        try {
+            Files.move(temp.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    //============================CONSULTAS===================================//
+    //Melhores partidas (no maximo topSize), maior score primeiro
+    public List<LeaderboardEntry> getTop(int limit) {
+        return getTop(limit, 0);
+    }
+
+    /*
+     Melhores partidas com maior peça >= minTile (ex: 4096). Junta as listas do indice de
+     minTile para cima, como em um merge: é exato para limit <= topSize e não lê o log.
+     */
+    public synchronized List<LeaderboardEntry> getTop(int limit, int minTile) {
+        int from = firstExponent(minTile);
+        limit = Math.min(limit, topSize);
+
+        int[] next = new int[TILES];
+        List<LeaderboardEntry> result = new ArrayList<LeaderboardEntry>(limit);
+        while (result.size() < limit) {
+            LeaderboardEntry best = null;
+            int bestTile = -1;
+            for (int tile = from; tile < TILES; tile++) {
+                if (next[tile] < topCount[tile]) {
+                    LeaderboardEntry entry = top[tile][next[tile]];
+                    if (best == null || entry.isBetterThan(best)) {
+                        best = entry;
+                        bestTile = tile;
+                    }
+                }
+            }
+            if (best == null) {
+                break;
+            }
+            result.add(best);
+            next[bestTile]++;
+        }
+        return result;
+    }
+
+    //Quantas partidas terminaram com maior peça >= minTile
+    public synchronized long count(int minTile) {
+        long total = 0;
+        for (int tile = firstExponent(minTile); tile < TILES; tile++) {
+            total += tileCount[tile];
+        }
+        return total;
+    }
+
+    //Menor expoente cuja peça é >= minTile
+    private static int firstExponent(int minTile) {
+        int exponent = 0;
+        while (exponent < TILES && (1 << exponent) < minTile) {
+            exponent++;
+        }
+        return exponent;
+    }
+
+    //===============================ARQUIVO==================================//
+    private static long offset(long index) {
+        return HEADER_BYTES + index * RECORD_BYTES;
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, position);
+            if (n < 0) {
+                throw new EOFException(file.getPath());
+            }
+            position += n;
+        }
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private File getIndexFile() {
+        return new File(file.getPath() + ".idx");
+    }
+
+    //========================GETTERS e SETTERS===============================//
+    public synchronized long size() {
+        return count;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int getTopSize() {
+        return topSize;
+    }
+}
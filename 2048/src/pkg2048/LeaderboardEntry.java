@@ -0,0 +1,93 @@
+package pkg2048;
+
+//========================================================================//
+/*
+ Uma partida terminada, como fica no placar (ver Leaderboard).
+ Só as partidas que entram no top ficam na memoria como objeto, o resto fica só no arquivo.
+ */
+public class LeaderboardEntry {
+
+    //Origem da partida
+    public static final int FLAG_AUTO_PLAY = 1;  //jogada pelo auto-play
+    public static final int FLAG_SIMULATOR = 2;  //jogada pelo Simulator
+    public static final int FLAG_UNDO = 4;       //teve movimento desfeito
+
+    //Numero do registro no arquivo (ordem em que as partidas terminaram)
+    private final long index;
+
+    private final int score;
+    private final int maxExponent;
+    private final int moves;
+    private final int durationMillis;
+    private final long seed;
+    private final long finishedAt;   //System.currentTimeMillis() do fim da partida
+    private final int flags;
+
+    //========================================================================//
+    public LeaderboardEntry(long index, int score, int maxExponent, int moves, int durationMillis,
+            long seed, long finishedAt, int flags) {
+        this.index = index;
+        this.score = score;
+        this.maxExponent = maxExponent;
+        this.moves = moves;
+        this.durationMillis = durationMillis;
+        this.seed = seed;
+        this.finishedAt = finishedAt;
+        this.flags = flags;
+    }
+
+    //Ordem do placar: maior score primeiro, no empate a partida mais antiga
+    boolean isBetterThan(LeaderboardEntry other) {
+        return score > other.score || (score == other.score && index < other.index);
+    }
+
+    //========================GETTERS e SETTERS===============================//
+    public long getIndex() {
+        return index;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getMaxExponent() {
+        return maxExponent;
+    }
+
+    //Valor da maior peça (2048, 4096 ...)
+    public int getMaxTile() {
+        return maxExponent == 0 ? 0 : 1 << maxExponent;
+    }
+
+    public int getMoves() {
+        return moves;
+    }
+
+    public int getDurationMillis() {
+        return durationMillis;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getFinishedAt() {
+        return finishedAt;
+    }
+
+    public int getFlags() {
+        return flags;
+    }
+
+    public boolean isAutoPlay() {
+        return (flags & FLAG_AUTO_PLAY) != 0;
+    }
+
+    public boolean isSimulated() {
+        return (flags & FLAG_SIMULATOR) != 0;
+    }
+
+    public boolean isUndoUsed() {
+        return (flags & FLAG_UNDO) != 0;
+    }
+}
@@ -0,0 +1,169 @@
+package pkg2048;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.MouseEvent;
+import java.io.IOException;
+import java.util.List;
+
+//========================================================================//
+//Tela do placar: as TOP melhores partidas, filtradas pela maior peça, uma pagina de cada vez.
+//Clicar em uma partida mostra o replay dela (se foi jogada aqui, o Simulator não grava replays)
+public class LeaderboardPanel extends Panel {
+
+    //Filtros do botão de peça minima (0 = todas)
+    private static final int[] MIN_TILES = {0, 512, 1024, 2048, 4096, 8192};
+
+    private static final int ROWS = 10;
+    private static final int ROW_HEIGHT = 30;
+    private static final int FIRST_ROW = 170;
+
+    private Leaderboard leaderboard;
+    private PlayPanel playPanel;
+
+    //Lista mostrada, refeita só quando o placar ou o filtro mudam (não a cada frame)
+    private List<LeaderboardEntry> entries;
+    private long entriesVersion = -1;
+    private long total;
+    private int filter;
+    private int page;
+
+    private Font titleFont = Game.main.deriveFont(50f);
+    private Font rowFont = Game.main.deriveFont(20f);
+    private Color titleColor = new Color(0x4B0082);
+    private Color rowColor = new Color(0x191970);
+
+    private Button filterButton;
+
+    public LeaderboardPanel(PlayPanel playPanel) {
+        super();
+        this.playPanel = playPanel;
+        leaderboard = Leaderboard.getInstance();
+
+        //botao que troca a peça minima
+        filterButton = new Button(Game.WIDTH / 2 - 250 / 2, 90, 250, 40);
+        filterButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                filter = (filter + 1) % MIN_TILES.length;
+                page = 0;
+                entriesVersion = -1;
+            }
+        });
+        add(filterButton);
+
+        //botoes de pagina
+        Button previousButton = new Button(20, 480, 80, 50);
+        previousButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                if (page > 0) {
+                    page--;
+                }
+            }
+        });
+        previousButton.setText("<");
+        add(previousButton);
+
+        Button nextButton = new Button(Game.WIDTH - 100, 480, 80, 50);
+        nextButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                if ((page + 1) * ROWS < entries.size()) {
+                    page++;
+                }
+            }
+        });
+        nextButton.setText(">");
+        add(nextButton);
+
+        //botao para voltar ao menu
+        Button menuButton = new Button(Game.WIDTH / 2 - 250 / 2, 480, 250, 50);
+        menuButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                Screen.getInstance().setCurrentPanel("Menu");
+            }
+        });
+        menuButton.setText("Menu");
+        add(menuButton);
+
+        refresh();
+    }
+
+    //========================================================================//
+    @Override
+    public void update() {
+        super.update();
+        if (entriesVersion != leaderboard.getVersion()) {
+            refresh();
+        }
+    }
+
+    //Consulta o indice do placar (as partidas ja estão na memoria, o arquivo não é lido)
+    private void refresh() {
+        int minTile = MIN_TILES[filter];
+        entriesVersion = leaderboard.getVersion();
+        entries = leaderboard.getTop(Leaderboard.TOP, minTile);
+        total = leaderboard.count(minTile);
+        filterButton.setText(minTile == 0 ? "Todas as peças" : "Peça >= " + minTile);
+    }
+
+    //========================================================================//
+    //Clique em uma linha: procura o replay pela semente e mostra na tela do jogo
+    @Override
+    public void mouseReleased(MouseEvent e) {
+        super.mouseReleased(e);
+        int top = FIRST_ROW - ROW_HEIGHT + 8;
+        if (e.getY() < top) {
+            return;
+        }
+        int i = page * ROWS + (e.getY() - top) / ROW_HEIGHT;
+        if ((e.getY() - top) / ROW_HEIGHT >= ROWS || i >= entries.size()) {
+            return;
+        }
+        try {
+            Replay replay = ReplayLog.getInstance().find(entries.get(i).getSeed());
+            if (replay != null) {
+                playPanel.watchReplay(replay);
+                Screen.getInstance().setCurrentPanel("Jogar");
+            }
+        } catch (IOException ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    //========================================================================//
+    @Override
+    public void draw(Graphics2D g) {
+        super.draw(g);
+        g.setFont(titleFont);
+        g.setColor(titleColor);
+        g.drawString("Recordes", Game.WIDTH / 2 - MessageSize.getStringWidth("Recordes", titleFont, g) / 2, 65);
+
+        g.setFont(rowFont);
+        g.setColor(rowColor);
+        if (entries.isEmpty()) {
+            String empty = "Nenhuma partida";
+            g.drawString(empty, Game.WIDTH / 2 - MessageSize.getStringWidth(empty, rowFont, g) / 2, FIRST_ROW);
+            return;
+        }
+
+        int first = page * ROWS;
+        int last = Math.min(first + ROWS, entries.size());
+        for (int i = first; i < last; i++) {
+            LeaderboardEntry entry = entries.get(i);
+            int y = FIRST_ROW + (i - first) * ROW_HEIGHT;
+            g.drawString((i + 1) + ".", 30, y);
+            g.drawString(Integer.toString(entry.getScore()), 90, y);
+            g.drawString(Integer.toString(entry.getMaxTile()), 230, y);
+            g.drawString(entry.getMoves() + " mov.", 330, y);
+        }
+
+        String footer = (first + 1) + "-" + last + " de " + total + " partidas";
+        g.drawString(footer, Game.WIDTH / 2 - MessageSize.getStringWidth(footer, rowFont, g) / 2, 465);
+    }
+}
@@ -0,0 +1,112 @@
+package pkg2048;
+
+//========================================================================//
+/*
+ Historico para desfazer/refazer: um anel de arrays primitivos com os estados da partida
+ (board compactado, score, estado do GameRandom e a direção que levou ate ele).
+ Nada é alocado por movimento; com o anel cheio o estado mais antigo é descartado,
+ então a memoria fica limitada a 'depth' estados (21 bytes cada).
+
+ Os estados validos vão de 'oldest' ate 'newest'; 'current' é o que está no board.
+ Um movimento novo depois de desfazer apaga os estados que podiam ser refeitos.
+ */
+public class MoveHistory {
+
+    //Profundidade padrão (-D2048.undo.depth=n)
+    public static final int DEFAULT_DEPTH = Integer.getInteger("2048.undo.depth", 4096);
+
+    private final long[] boards;
+    private final int[] scores;
+    private final long[] randomStates;
+    private final byte[] directions;
+    private final int depth;
+
+    //Contadores absolutos (nunca voltam ao inicio), a posição no anel é contador % depth
+    private long oldest;
+    private long current;
+    private long newest;
+
+    //========================================================================//
+    public MoveHistory(int depth) {
+        this.depth = Math.max(1, depth);
+        boards = new long[this.depth];
+        scores = new int[this.depth];
+        randomStates = new long[this.depth];
+        directions = new byte[this.depth];
+    }
+
+    //Começo de uma partida (ou partida continuada): só o estado atual, nada para desfazer
+    public void reset(long board, int score, long randomState) {
+        oldest = 0;
+        current = 0;
+        newest = 0;
+        store(0, board, score, randomState, -1);
+    }
+
+    //Estado depois de um movimento na direção 'dir'
+    public void push(long board, int score, long randomState, int dir) {
+        current++;
+        newest = current;
+        if (current - oldest >= depth) {
+            oldest = current - depth + 1;
+        }
+        store(current, board, score, randomState, dir);
+    }
+
+    private void store(long index, long board, int score, long randomState, int dir) {
+        int i = (int) (index % depth);
+        boards[i] = board;
+        scores[i] = score;
+        randomStates[i] = randomState;
+        directions[i] = (byte) dir;
+    }
+
+    //========================================================================//
+    //Volta um estado; depois leia getBoard/getScore/getRandomState
+    public boolean undo() {
+        if (current == oldest) {
+            return false;
+        }
+        current--;
+        return true;
+    }
+
+    //Avança um estado desfeito; getDirection diz qual movimento foi refeito
+    public boolean redo() {
+        if (current == newest) {
+            return false;
+        }
+        current++;
+        return true;
+    }
+
+    public boolean canUndo() {
+        return current > oldest;
+    }
+
+    public boolean canRedo() {
+        return current < newest;
+    }
+
+    //========================GETTERS e SETTERS===============================//
+    public long getBoard() {
+        return boards[(int) (current % depth)];
+    }
+
+    public int getScore() {
+        return scores[(int) (current % depth)];
+    }
+
+    public long getRandomState() {
+        return randomStates[(int) (current % depth)];
+    }
+
+    //Direção que levou ao estado atual (-1 no começo da partida)
+    public int getDirection() {
+        return directions[(int) (current % depth)];
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+}
@@ -0,0 +1,182 @@
+package pkg2048;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+//========================================================================//
+/*
+ Mesmo expectimax do ExpectimaxPlayer, mas a raiz é dividida entre varias threads:
+ cada combinação (direção x casa vazia x {2, 4}) vira uma tarefa no ForkJoinPool.
+ Todas as tarefas usam a mesma TranspositionTable (sem lock).
+ */
+public class ParallelExpectimaxPlayer {
+
+    private final ForkJoinPool pool;
+    private final TranspositionTable table;
+    private final long budgetNanos;
+    private int maxDepth = ExpectimaxPlayer.MAX_DEPTH;
+
+    //Resultado da ultima busca
+    private long nodes;
+    private int lastDepth;
+
+    //========================================================================//
+    public ParallelExpectimaxPlayer(int threads, int tableBits, long budgetNanos) {
+        this.pool = new ForkJoinPool(threads);
+        this.table = new TranspositionTable(tableBits);
+        this.budgetNanos = budgetNanos;
+    }
+
+    //========================================================================//
+    //Melhor direção para o board, ou -1 se nenhuma direção move
+    public int bestMove(long board) {
+        table.nextGeneration();
+        long deadline = System.nanoTime() + budgetNanos;
+        nodes = 0;
+        lastDepth = 0;
+
+        int best = -1;
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            RootSearch root = new RootSearch(board, depth, deadline, table);
+            pool.invoke(root);
+            nodes += root.nodes;
+
+            if (root.aborted) {
+                break;
+            }
+            best = root.best;
+            lastDepth = depth;
+            if (best == -1 || System.nanoTime() >= deadline) {
+                break;
+            }
+        }
+        return best;
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    //============================TAREFAS=====================================//
+    //Expande a raiz, espera todas as tarefas e junta os valores por direção
+    private static class RootSearch extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long board;
+        private final int depth;
+        private final long deadline;
+        private final TranspositionTable table;
+
+        int best = -1;
+        boolean aborted;
+        long nodes;
+
+        RootSearch(long board, int depth, long deadline, TranspositionTable table) {
+            this.board = board;
+            this.depth = depth;
+            this.deadline = deadline;
+            this.table = table;
+        }
+
+        @Override
+        protected void compute() {
+            List<SpawnTask> tasks = new ArrayList<SpawnTask>();
+            long[] moved = new long[4];
+
+            for (int dir = 0; dir < 4; dir++) {
+                moved[dir] = Bitboard.move(board, dir);
+                if (moved[dir] == board || depth == 1) {
+                    continue;
+                }
+                int empty = Bitboard.countEmpty(moved[dir]);
+                long tile = 1;
+                for (int cell = 0; cell < Bitboard.SIDE * Bitboard.SIDE; cell++, tile <<= 4) {
+                    if (((moved[dir] >>> (4 * cell)) & 0xF) != 0) {
+                        continue;
+                    }
+                    tasks.add(new SpawnTask(dir, 0.8f, moved[dir] | tile, depth - 1, 0.8f / empty, deadline, table));
+                    tasks.add(new SpawnTask(dir, 0.2f, moved[dir] | (tile << 1), depth - 1, 0.2f / empty, deadline, table));
+                }
+            }
+            ForkJoinTask.invokeAll(tasks);
+
+            float[] sum = new float[4];
+            for (SpawnTask task : tasks) {
+                sum[task.dir] += task.weight * task.score;
+                nodes += task.nodes;
+                aborted |= task.aborted;
+            }
+
+            float bestScore = -1;
+            for (int dir = 0; dir < 4; dir++) {
+                if (moved[dir] == board) {
+                    continue;
+                }
+                float score = depth == 1
+                        ? ExpectimaxPlayer.evaluate(moved[dir])
+                        : sum[dir] / Bitboard.countEmpty(moved[dir]);
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = dir;
+                }
+            }
+        }
+    }
+
+    //Um spawn da raiz: busca sequencial a partir dele
+    private static class SpawnTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        final int dir;
+        final float weight;
+        private final long board;
+        private final int depth;
+        private final float probability;
+        private final long deadline;
+        private final TranspositionTable table;
+
+        float score;
+        boolean aborted;
+        long nodes;
+
+        SpawnTask(int dir, float weight, long board, int depth, float probability, long deadline, TranspositionTable table) {
+            this.dir = dir;
+            this.weight = weight;
+            this.board = board;
+            this.depth = depth;
+            this.probability = probability;
+            this.deadline = deadline;
+            this.table = table;
+        }
+
+        @Override
+        protected void compute() {
+            ExpectimaxPlayer search = new ExpectimaxPlayer(table, 0);
+            score = search.searchMax(board, depth, probability, deadline);
+            aborted = search.isAborted();
+            nodes = search.getNodes();
+        }
+    }
+
+    //========================GETTERS e SETTERS===============================//
+    public long getNodes() {
+        return nodes;
+    }
+
+    public int getLastDepth() {
+        return lastDepth;
+    }
+
+    public void setMaxDepth(int maxDepth) {
+        this.maxDepth = maxDepth;
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+}
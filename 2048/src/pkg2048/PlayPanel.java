@@ -1,174 +1,276 @@
-package pkg2048;
-
-import java.awt.Color;
-import java.awt.Font;
-import java.awt.Graphics2D;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
-import java.awt.image.BufferedImage;
-import java.util.logging.Level;
-import java.util.logging.Logger;
-
-public class PlayPanel extends Panel {
-
-    //Tabuleiro do jogo 
-    private Gameboard board;
-    private BufferedImage info;
-    private Font scoreFont;
-
-    //Botões usados
-    private Button playAgain;
-    private Button menu;
-    private Button newGame;
-    private Button easterEgg;
-    private Button exit;
-
-    private int largeButtonWidth = 380;
-    private int buttonHeight = 50;
-    private boolean added;  //verificador para saber se ja foi adicionado a tela de vitoria/derreta
-    private int opacity = 0;  //eh a transparencia/opacidade
-
-    private Font gameOverFont;
-
-    public PlayPanel() {
-        gameOverFont = Game.main.deriveFont(70f);
-        board = new Gameboard(Game.WIDTH / 2 - Gameboard.BOARD_WIDTH / 2, Game.HEIGHT - Gameboard.BOARD_HEIGHT - 20);
-        info = new BufferedImage(Game.WIDTH, 200, BufferedImage.TYPE_INT_RGB);
-
-        //instancia dos botoes
-        menu = new Button(Game.WIDTH / 2 - largeButtonWidth / 2, 380, largeButtonWidth, buttonHeight);
-        playAgain = new Button(Game.WIDTH / 2 - largeButtonWidth / 2, 310, largeButtonWidth, buttonHeight);
-        exit = new Button(Game.WIDTH / 2 - largeButtonWidth / 2, 450, largeButtonWidth, buttonHeight);
-
-        newGame = new Button(Game.WIDTH / 2 - 130 / 2 + 150, 20, 130, buttonHeight);
-        easterEgg = new Button(Game.WIDTH / 2 - 150 / 2 + 150, 20, 150, buttonHeight);
-
-        //texto dos botoes
-        menu.setText("Voltar para o Menu");
-        playAgain.setText("Tentar Novamente");
-        exit.setText("Sair");
-
-        newGame.setText("Novo Jogo");
-        easterEgg.setText("");
-
-        //Ações ao clicar sobre o botão de jogar novamente
-        playAgain.addActionListener(new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                board.resetBoard();
-                opacity = 0;
-                remove(playAgain);
-                remove(menu);
-                remove(exit);
-                add(easterEgg);
-                add(newGame);
-                added = false;
-            }
-        });
-
-        //Ações ao clicar sobre o botão de voltar ao menu
-        menu.addActionListener(new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                board.resetBoard();
-                opacity = 0;
-                remove(playAgain);
-                remove(menu);
-                remove(exit);
-                add(easterEgg);
-                add(newGame);
-                added = false;
-                Screen.getInstance().setCurrentPanel("Menu");
-            }
-        });
-
-        //Ações ao clicar sobre o botão de easterEgg
-        easterEgg.addActionListener(new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                board.resetBoardEasterEgg();
-            }
-        });
-        add(easterEgg);
-
-        //Ações ao clicar sobre o botão de novo jogo
-        newGame.addActionListener(new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                board.resetBoard();
-            }
-        });
-        add(newGame);
-
-        //Ações ao clicar sobre o botão de sair
-        exit.addActionListener(new ActionListener() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                System.exit(0);
-            }
-        });
-    }
-
-    //========================================================================//
-    //Desenha a tela de derrota
-    public void drawGameOver(Graphics2D g) {
-        g.setColor(new Color(222, 222, 222, opacity));
-        g.fillRect(0, 0, Game.WIDTH, Game.HEIGHT);
-        g.setColor(Color.red);
-        g.drawString("FIM DE JOGO", Game.WIDTH / 2 - MessageSize.getStringWidth("FIM DE JOGO", gameOverFont, g) / 2, 250);
-    }
-
-    //========================================================================//
-    //Desenha a tela de vitoria
-    public void drawGameWin(Graphics2D g) {
-        g.setColor(new Color(222, 222, 222, opacity));
-        g.fillRect(0, 0, Game.WIDTH, Game.HEIGHT);
-        g.setColor(Color.green);
-        g.drawString("VITORIA", Game.WIDTH / 2 - MessageSize.getStringWidth("VITORIA", gameOverFont, g) / 2, 250);
-    }
-
-    //========================================================================//
-    //Faz e checa os updates do board e caso tenha perdido a opacidade eh aumentada para desenhar
-    @Override
-    public void update() {
-        board.update();
-
-        if (board.checkDead()) {
-            opacity++;
-            if (opacity > 170) {
-                opacity = 170;
-            }
-        }
-    }
-
-    //========================================================================//
-    //Desenha de acordo com a situaçao se houve vitoria,derrota
-    @Override
-    public void draw(Graphics2D g) {
-        board.draw(g);
-
-        if (board.checkWin()) {
-            if (!added) {
-                added = true;
-                add(menu);
-                add(playAgain);
-                add(exit);
-                remove(newGame);
-                remove(easterEgg);
-            }
-            drawGameWin(g);
-        } else if (board.checkDead()) {
-            if (!added) {
-                added = true;
-                add(menu);
-                add(playAgain);
-                add(exit);
-                remove(newGame);
-                remove(easterEgg);
-            }
-            drawGameOver(g);
-        }
-
-        super.draw(g);
-    }
-}
+package pkg2048;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.KeyEvent;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class PlayPanel extends Panel {
+
+    //Tabuleiro do jogo 
+    private Gameboard board;
+
+    //Replay aberto pela tela de recordes, em um board separado (sem placar nem save):
+    //a partida em andamento fica parada e volta igual quando o replay é fechado
+    private Gameboard replayBoard;
+    private boolean watching;
+
+    private BufferedImage info;
+    private Font scoreFont;
+
+    //Botões usados
+    private Button playAgain;
+    private Button menu;
+    private Button newGame;
+    private Button easterEgg;
+    private Button autoPlay;
+    private Button exit;
+    private Button backToGame;
+
+    private int largeButtonWidth = 380;
+    private int buttonHeight = 50;
+    private int smallButtonHeight = 35;  //novo jogo e auto-play dividem o espaço acima do board
+    private boolean added;  //verificador para saber se ja foi adicionado a tela de vitoria/derreta
+    private int opacity = 0;  //eh a transparencia/opacidade
+
+    private Font gameOverFont;
+
+    public PlayPanel() {
+        gameOverFont = Game.main.deriveFont(70f);
+        board = new Gameboard(Game.WIDTH / 2 - Gameboard.BOARD_WIDTH / 2, Game.HEIGHT - Gameboard.BOARD_HEIGHT - 20);
+        info = new BufferedImage(Game.WIDTH, 200, BufferedImage.TYPE_INT_RGB);
+
+        //instancia dos botoes
+        menu = new Button(Game.WIDTH / 2 - largeButtonWidth / 2, 380, largeButtonWidth, buttonHeight);
+        playAgain = new Button(Game.WIDTH / 2 - largeButtonWidth / 2, 310, largeButtonWidth, buttonHeight);
+        exit = new Button(Game.WIDTH / 2 - largeButtonWidth / 2, 450, largeButtonWidth, buttonHeight);
+
+        newGame = new Button(Game.WIDTH / 2 - 130 / 2 + 150, 10, 130, smallButtonHeight);
+        easterEgg = new Button(Game.WIDTH / 2 - 150 / 2 + 150, 10, 150, smallButtonHeight);
+        autoPlay = new Button(Game.WIDTH / 2 - 130 / 2 + 150, 50, 130, smallButtonHeight);
+        backToGame = new Button(Game.WIDTH / 2 - 130 / 2 + 150, 10, 130, smallButtonHeight);
+
+        //texto dos botoes
+        menu.setText("Voltar para o Menu");
+        playAgain.setText("Tentar Novamente");
+        exit.setText("Sair");
+
+        newGame.setText("Novo Jogo");
+        easterEgg.setText("");
+        autoPlay.setText("Auto-play");
+        backToGame.setText("Voltar");
+
+        //Ações ao clicar sobre o botão de jogar novamente
+        playAgain.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                board.resetBoard();
+                setAutoPlay(false);
+                opacity = 0;
+                remove(playAgain);
+                remove(menu);
+                remove(exit);
+                add(easterEgg);
+                add(newGame);
+                add(autoPlay);
+                added = false;
+            }
+        });
+
+        //Ações ao clicar sobre o botão de voltar ao menu
+        menu.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                board.resetBoard();
+                setAutoPlay(false);
+                opacity = 0;
+                remove(playAgain);
+                remove(menu);
+                remove(exit);
+                add(easterEgg);
+                add(newGame);
+                add(autoPlay);
+                added = false;
+                Screen.getInstance().setCurrentPanel("Menu");
+            }
+        });
+
+        //Ações ao clicar sobre o botão de easterEgg
+        easterEgg.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                board.resetBoardEasterEgg();
+            }
+        });
+        add(easterEgg);
+
+        //Ações ao clicar sobre o botão de novo jogo
+        newGame.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                board.resetBoard();
+            }
+        });
+        add(newGame);
+
+        //Ações ao clicar sobre o botão de auto-play (liga/desliga o jogador automatico)
+        autoPlay.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                setAutoPlay(!board.isAutoPlay());
+            }
+        });
+        add(autoPlay);
+
+        //Ações ao clicar sobre o botão de voltar do replay para a partida
+        backToGame.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                stopReplay();
+            }
+        });
+
+        //Ações ao clicar sobre o botão de sair
+        exit.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                System.exit(0);
+            }
+        });
+    }
+
+    //========================================================================//
+    //Liga/desliga o jogador automatico e atualiza o texto do botão
+    private void setAutoPlay(boolean on) {
+        board.setAutoPlay(on);
+        autoPlay.setText(on ? "Parar" : "Auto-play");
+    }
+
+    //========================================================================//
+    //Mostra um replay no board de replay (chamado pela tela de recordes)
+    public void watchReplay(Replay replay) {
+        if (replayBoard == null) {
+            replayBoard = new Gameboard(Game.WIDTH / 2 - Gameboard.BOARD_WIDTH / 2,
+                    Game.HEIGHT - Gameboard.BOARD_HEIGHT - 20, new Random());
+        }
+        replayBoard.startReplay(replay);
+        if (watching) {
+            return;
+        }
+        watching = true;
+        if (added) {
+            remove(playAgain);
+            remove(menu);
+            remove(exit);
+        } else {
+            remove(easterEgg);
+            remove(newGame);
+            remove(autoPlay);
+        }
+        add(backToGame);
+    }
+
+    //Fecha o replay e volta para a partida do jogador, com os botões de antes
+    private void stopReplay() {
+        watching = false;
+        remove(backToGame);
+        if (added) {
+            add(menu);
+            add(playAgain);
+            add(exit);
+        } else {
+            add(easterEgg);
+            add(newGame);
+            add(autoPlay);
+        }
+    }
+
+    //========================================================================//
+    //Desenha a tela de derrota
+    public void drawGameOver(Graphics2D g) {
+        g.setColor(new Color(222, 222, 222, opacity));
+        g.fillRect(0, 0, Game.WIDTH, Game.HEIGHT);
+        g.setColor(Color.red);
+        g.drawString("FIM DE JOGO", Game.WIDTH / 2 - MessageSize.getStringWidth("FIM DE JOGO", gameOverFont, g) / 2, 250);
+    }
+
+    //========================================================================//
+    //Desenha a tela de vitoria
+    public void drawGameWin(Graphics2D g) {
+        g.setColor(new Color(222, 222, 222, opacity));
+        g.fillRect(0, 0, Game.WIDTH, Game.HEIGHT);
+        g.setColor(Color.green);
+        g.drawString("VITORIA", Game.WIDTH / 2 - MessageSize.getStringWidth("VITORIA", gameOverFont, g) / 2, 250);
+    }
+
+    //========================================================================//
+    //Faz e checa os updates do board e caso tenha perdido a opacidade eh aumentada para desenhar
+    @Override
+    public void update() {
+        if (watching) {
+            replayBoard.update();
+            return;
+        }
+
+        //Z desfaz e Y refaz o ultimo movimento
+        if (KeyboardInput.keyTyped(KeyEvent.VK_Z)) {
+            board.undo();
+        }
+        if (KeyboardInput.keyTyped(KeyEvent.VK_Y)) {
+            board.redo();
+        }
+        board.update();
+
+        if (board.checkDead()) {
+            opacity++;
+            if (opacity > 170) {
+                opacity = 170;
+            }
+        }
+    }
+
+    //========================================================================//
+    //Desenha de acordo com a situaçao se houve vitoria,derrota
+    @Override
+    public void draw(Graphics2D g) {
+        if (watching) {
+            replayBoard.draw(g);
+            super.draw(g);
+            return;
+        }
+
+        board.draw(g);
+
+        if (board.checkWin()) {
+            if (!added) {
+                added = true;
+                add(menu);
+                add(playAgain);
+                add(exit);
+                remove(newGame);
+                remove(easterEgg);
+                remove(autoPlay);
+            }
+            drawGameWin(g);
+        } else if (board.checkDead()) {
+            if (!added) {
+                added = true;
+                add(menu);
+                add(playAgain);
+                add(exit);
+                remove(newGame);
+                remove(easterEgg);
+                remove(autoPlay);
+            }
+            drawGameOver(g);
+        }
+
+        super.draw(g);
+    }
+}
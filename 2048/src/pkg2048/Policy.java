@@ -0,0 +1,11 @@
+package pkg2048;
+
+import java.util.Random;
+
+//========================================================================//
+//Estrategia de jogo usada pelo Simulator (e por qualquer jogador sem tela)
+public interface Policy {
+
+    //Direção escolhida para o board, ou -1 se nenhuma direção move
+    public int chooseMove(long board, Random rng);
+}
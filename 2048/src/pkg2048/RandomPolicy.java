@@ -0,0 +1,20 @@
+package pkg2048;
+
+import java.util.Random;
+
+//========================================================================//
+//Escolhe uma direção valida ao acaso
+public class RandomPolicy implements Policy {
+
+    @Override
+    public int chooseMove(long board, Random rng) {
+        int start = rng.nextInt(4);
+        for (int i = 0; i < 4; i++) {
+            int dir = (start + i) & 3;
+            if (Bitboard.move(board, dir) != board) {
+                return dir;
+            }
+        }
+        return -1;
+    }
+}
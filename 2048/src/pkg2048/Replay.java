@@ -0,0 +1,101 @@
+package pkg2048;
+
+import java.util.Arrays;
+
+//========================================================================//
+/*
+ Uma partida gravada: a semente das peças (GameRandom) e as direções aplicadas, 2 bits cada
+ (constantes do GameEngine, 4 por byte). Só entram movimentos que mudaram o board, então
+ a semente e as direções refazem a partida exatamente (ver ReplayEngine).
+ Guarda também o board e o score finais, para conferir o resultado.
+ */
+public class Replay {
+
+    private long seed;
+    private byte[] moves;
+    private int count;
+
+    private long finalBoard;
+    private int finalScore;
+
+    //========================================================================//
+    //Replay vazio para gravar (o array cresce dobrando, a partida não aloca a cada movimento)
+    public Replay() {
+        moves = new byte[256];
+    }
+
+    public Replay(long seed, byte[] moves, int count, long finalBoard, int finalScore) {
+        this.seed = seed;
+        this.moves = moves;
+        this.count = count;
+        this.finalBoard = finalBoard;
+        this.finalScore = finalScore;
+    }
+
+    //========================================================================//
+    //Começa uma partida nova reaproveitando o array
+    public void reset(long seed) {
+        this.seed = seed;
+        count = 0;
+        finalBoard = 0;
+        finalScore = 0;
+    }
+
+    public void add(int dir) {
+        int index = count >> 2;
+        if (index == moves.length) {
+            moves = Arrays.copyOf(moves, moves.length * 2);
+        }
+        //Limpa os 2 bits antes (podem ter sobrado de um movimento desfeito)
+        int shift = (count & 3) * 2;
+        moves[index] = (byte) ((moves[index] & ~(3 << shift)) | dir << shift);
+        count++;
+    }
+
+    //Tira o ultimo movimento (desfazer)
+    public void removeLast() {
+        if (count > 0) {
+            count--;
+        }
+    }
+
+    public int getMove(int i) {
+        return (moves[i >> 2] >>> ((i & 3) * 2)) & 3;
+    }
+
+    public void finish(long board, int score) {
+        finalBoard = board;
+        finalScore = score;
+    }
+
+    //Copia com o tamanho exato (o original continua sendo usado na proxima partida)
+    public Replay copy() {
+        return new Replay(seed, Arrays.copyOf(moves, getPackedLength()), count, finalBoard, finalScore);
+    }
+
+    //========================GETTERS e SETTERS===============================//
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    //Bytes usados pelas direções
+    public int getPackedLength() {
+        return (count + 3) >> 2;
+    }
+
+    byte[] getPacked() {
+        return moves;
+    }
+
+    public long getFinalBoard() {
+        return finalBoard;
+    }
+
+    public int getFinalScore() {
+        return finalScore;
+    }
+}
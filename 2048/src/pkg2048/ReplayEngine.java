@@ -0,0 +1,95 @@
+package pkg2048;
+
+//========================================================================//
+/*
+ Refaz uma partida gravada sem tela, direto sobre o Bitboard: mesma semente no GameRandom,
+ as 2 peças iniciais e, a cada direção, o movimento e o spawn, como o Gameboard faz.
+ Para ver o replay na tela use Gameboard.startReplay (mesmas regras, com animação).
+ */
+public class ReplayEngine {
+
+    private final Replay replay;
+    private final GameRandom random = new GameRandom();
+
+    private long board;
+    private int score;
+    private int position;
+
+    //Uma direção que não mexe no board: o replay não bate com as regras (ou com a semente)
+    private boolean invalid;
+
+    //========================================================================//
+    public ReplayEngine(Replay replay) {
+        this.replay = replay;
+        restart();
+    }
+
+    //Volta para o inicio da partida
+    public void restart() {
+        random.setSeed(replay.getSeed());
+        board = Bitboard.spawn(0, random, 1, 2);
+        board = Bitboard.spawn(board, random, 1, 2);
+        score = 0;
+        position = 0;
+        invalid = false;
+    }
+
+    //Aplica as proximas n direções (ou ate o fim) e devolve quantas foram aplicadas
+    public int fastForward(int n) {
+        int start = position;
+        int end = n >= replay.getCount() - start ? replay.getCount() : start + n;
+        byte[] packed = replay.getPacked();
+        long b = board;
+        int s = score;
+        int p = start;
+
+        while (p < end) {
+            int dir = (packed[p >> 2] >>> ((p & 3) * 2)) & 3;
+            long next = Bitboard.move(b, dir);
+            if (next == b) {
+                invalid = true;
+                break;
+            }
+            s += Bitboard.score(b, dir);
+            b = Bitboard.spawn(next, random, 1, 2);
+            p++;
+        }
+
+        board = b;
+        score = s;
+        position = p;
+        return p - start;
+    }
+
+    public boolean step() {
+        return fastForward(1) == 1;
+    }
+
+    //Refaz a partida inteira e confere com o board e o score gravados no fim dela
+    public static boolean verify(Replay replay) {
+        ReplayEngine engine = new ReplayEngine(replay);
+        engine.fastForward(Integer.MAX_VALUE);
+        return engine.isFinished() && engine.board == replay.getFinalBoard() && engine.score == replay.getFinalScore();
+    }
+
+    //========================GETTERS e SETTERS===============================//
+    public long getBoard() {
+        return board;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public boolean isFinished() {
+        return !invalid && position == replay.getCount();
+    }
+
+    public boolean isInvalid() {
+        return invalid;
+    }
+}
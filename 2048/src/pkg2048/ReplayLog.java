@@ -0,0 +1,250 @@
+package pkg2048;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+//========================================================================//
+/*
+ Arquivo com os replays das partidas terminadas, só de acrescimo.
+ Registro: semente(8) board final(8) score final(4) movimentos(4) e as direções (2 bits cada).
+ Uma partida de 1000 movimentos ocupa 274 bytes.
+
+ find(semente) acha o replay de uma partida do placar (Leaderboard guarda a semente). Na primeira
+ busca os cabeçalhos são lidos uma vez (as direções são puladas) e fica um mapa semente -> posição.
+
+ O main refaz todas as partidas do arquivo e confere board e score finais: serve de teste de
+ regressão depois de mexer nas regras, e mede quantos movimentos por segundo o replay faz.
+
+ Uso: java -cp 2048.jar pkg2048.ReplayLog [arquivo]
+ */
+public class ReplayLog {
+
+    //Arquivo dos replays: ~/.2048/Replays.dat (ou -D2048.replays=caminho)
+    public static final File DEFAULT_FILE = new File(System.getProperty("2048.replays",
+            System.getProperty("user.home") + File.separator + ".2048" + File.separator + "Replays.dat"));
+
+    private static final int MAGIC = 0x32303452;    //"204R"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 8;
+    private static final int RECORD_HEADER_BYTES = 24;
+
+    //Nenhuma partida chega nisso: cada movimento põe uma peça (2 ou 4) e a soma das 16 peças não passa de 16 * 2^17
+    static final int MAX_MOVES = 1 << 21;
+
+    private static ReplayLog instance;
+
+    private final File file;
+
+    //Fim do ultimo registro completo, conferido na primeira gravação (-1 = ainda não conferido)
+    private long end = -1;
+
+    //Semente -> posição do registro, montado na primeira busca
+    private Map<Long, Long> offsets;
+
+    //========================================================================//
+    public ReplayLog(File file) {
+        this.file = file;
+    }
+
+    public static synchronized ReplayLog getInstance() {
+        if (instance == null) {
+            instance = new ReplayLog(DEFAULT_FILE);
+        }
+        return instance;
+    }
+
+    public static void main(String[] args) throws IOException {
+        File file = args.length > 0 ? new File(args[0]) : DEFAULT_FILE;
+
+        int games = 0;
+        int failed = 0;
+        long moves = 0;
+        long nanos = 0;
+        try (Reader reader = new ReplayLog(file).open()) {
+            Replay replay;
+            while ((replay = reader.next()) != null) {
+                long start = System.nanoTime();
+                boolean ok = ReplayEngine.verify(replay);
+                nanos += System.nanoTime() - start;
+                games++;
+                moves += replay.getCount();
+                if (!ok) {
+                    failed++;
+                    System.out.println("diferente: semente " + replay.getSeed() + " score " + replay.getFinalScore());
+                }
+            }
+        }
+        System.out.printf("%d partidas, %d movimentos, %d diferentes (%.1f M movimentos/s)%n",
+                games, moves, failed, moves / (nanos / 1e9) / 1e6);
+    }
+
+    //=============================GRAVAR=====================================//
+    public synchronized void append(Replay replay) throws IOException {
+        File dir = file.getAbsoluteFile().getParentFile();
+        if (dir != null && !dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Não foi possivel criar " + dir);
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            if (end == -1) {
+                end = recover(channel);
+            }
+            long position = end;
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + RECORD_HEADER_BYTES + replay.getPackedLength());
+            if (position == 0) {
+                buffer.putInt(MAGIC).putInt(VERSION);
+            }
+            long offset = position + buffer.position();
+            buffer.putLong(replay.getSeed()).putLong(replay.getFinalBoard())
+                    .putInt(replay.getFinalScore()).putInt(replay.getCount())
+                    .put(replay.getPacked(), 0, replay.getPackedLength());
+            buffer.flip();
+            //Se a gravação falhar no meio a proxima confere o arquivo de novo
+            end = -1;
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            end = position;
+            if (offsets != null) {
+                offsets.put(replay.getSeed(), offset);
+            }
+        }
+    }
+
+    //Um registro pela metade (o jogo fechou no meio da gravação) é descartado, como no Leaderboard:
+    //o arquivo é cortado no fim do ultimo registro completo e a proxima partida grava a partir dali
+    private long recover(FileChannel channel) throws IOException {
+        long size = channel.size();
+        long valid = 0;
+        if (size >= HEADER_BYTES) {
+            try (Reader reader = open()) {
+                valid = HEADER_BYTES;
+                while (reader.skip() != -1) {
+                    valid = reader.position;
+                }
+            }
+        }
+        if (valid != size) {
+            channel.truncate(valid);
+        }
+        return valid;
+    }
+
+    //=============================BUSCAR=====================================//
+    //Replay da partida com essa semente, null se ela não foi gravada
+    public synchronized Replay find(long seed) throws IOException {
+        if (offsets == null) {
+            offsets = new HashMap<Long, Long>();
+            try (Reader reader = open()) {
+                long offset;
+                while ((offset = reader.skip()) != -1) {
+                    offsets.put(reader.seed, offset);
+                }
+            }
+        }
+        Long offset = offsets.get(seed);
+        if (offset == null) {
+            return null;
+        }
+        try (Reader reader = open()) {
+            reader.in.skipBytes((int) Math.min(Integer.MAX_VALUE, offset - HEADER_BYTES));
+            return reader.next();
+        }
+    }
+
+    //Leitura em sequencia, um replay de cada vez (o arquivo nunca é carregado inteiro)
+    public Reader open() throws IOException {
+        return new Reader(file);
+    }
+
+    public static class Reader implements Closeable {
+
+        private final DataInputStream in;
+        private final long length;
+        private long position;
+        private long seed;
+
+        private Reader(File file) throws IOException {
+            length = file.length();
+            if (!file.isFile()) {
+                in = null;
+                return;
+            }
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16));
+            try {
+                if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                    throw new IOException("Arquivo de replays invalido: " + file);
+                }
+            } catch (IOException e) {
+                in.close();
+                throw e;
+            }
+            position = HEADER_BYTES;
+        }
+
+        //Proximo replay, null no fim do arquivo (um registro cortado no fim conta como fim)
+        public Replay next() throws IOException {
+            if (in == null) {
+                return null;
+            }
+            try {
+                long seed = in.readLong();
+                long finalBoard = in.readLong();
+                int finalScore = in.readInt();
+                int count = in.readInt();
+                if (count < 0 || count > MAX_MOVES) {
+                    throw new IOException("Registro de replay invalido na posição " + position + ": " + count + " movimentos");
+                }
+                byte[] moves = new byte[(count + 3) >> 2];
+                in.readFully(moves);
+                position += RECORD_HEADER_BYTES + moves.length;
+                return new Replay(seed, moves, count, finalBoard, finalScore);
+            } catch (EOFException e) {
+                return null;
+            }
+        }
+
+        //Lê só o cabeçalho e pula as direções; devolve a posição do registro
+        //(-1 no fim, em um registro cortado ou com numero de movimentos impossivel)
+        private long skip() throws IOException {
+            if (in == null) {
+                return -1;
+            }
+            try {
+                long offset = position;
+                seed = in.readLong();
+                in.readLong();
+                in.readInt();
+                int count = in.readInt();
+                if (count < 0 || count > MAX_MOVES) {
+                    return -1;
+                }
+                int bytes = (count + 3) >> 2;
+                //O FileInputStream pula alem do fim sem reclamar, então o tamanho do arquivo é conferido antes
+                if (offset + RECORD_HEADER_BYTES + bytes > length || in.skipBytes(bytes) != bytes) {
+                    return -1;
+                }
+                position += RECORD_HEADER_BYTES + bytes;
+                return offset;
+            } catch (EOFException e) {
+                return -1;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (in != null) {
+                in.close();
+            }
+        }
+    }
+}
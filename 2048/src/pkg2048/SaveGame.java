@@ -0,0 +1,212 @@
+package pkg2048;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+//========================================================================//
+/*
+ Partida em andamento gravada em um arquivo pequeno (16 KB) mapeado na memoria.
+ Cada movimento escreve um snapshot (board, score, movimentos, estado do GameRandom, semente,
+ tempo de jogo) e a direção (2 bits, para o replay continuar junto) direto no mapeamento:
+ sem chamada de sistema, custa nanossegundos.
+ O sistema operacional leva as paginas para o disco, inclusive se o jogo fechar ou cair
+ (só uma queda do proprio sistema pode perder os ultimos movimentos).
+
+ Dois slots usados alternadamente, cada um com numero de sequencia e checksum: um snapshot
+ escrito pela metade não confere e o load fica com o outro slot (o movimento anterior).
+ */
+public class SaveGame {
+
+    //Arquivo da partida: ~/.2048/SaveGame.dat (ou -D2048.savegame=caminho)
+    public static final File DEFAULT_FILE = new File(System.getProperty("2048.savegame",
+            System.getProperty("user.home") + File.separator + ".2048" + File.separator + "SaveGame.dat"));
+
+    //Flags do snapshot
+    public static final int FLAG_RECORD = 1;    //partida normal, vai para o placar quando acabar
+    public static final int FLAG_UNDO = 2;      //teve movimento desfeito
+
+    private static final int MAGIC = 0x32303453;    //"204S"
+    private static final int VERSION = 2;
+
+    /*
+     Cabeçalho (marca + versão) e dois slots de 64 bytes:
+     sequencia(8) board(8) estado do gerador(8) semente(8) tempo em ms(8)
+     score(4) movimentos(4) flags(4) livre(4) checksum(8)
+     */
+    private static final int SLOT_BYTES = 64;
+    private static final int FIRST_SLOT = 64;
+
+    //Direções da partida (4 por byte) depois dos slots
+    public static final int MAX_MOVES = 1 << 16;
+    private static final int FIRST_MOVE = FIRST_SLOT + 2 * SLOT_BYTES;
+    private static final int FILE_BYTES = FIRST_MOVE + MAX_MOVES / 4;
+    private static final int CHECKSUM = 56;
+
+    private static SaveGame instance;
+    private static boolean instanceFailed;
+
+    private final MappedByteBuffer map;
+
+    //Sequencia do ultimo snapshot escrito (o proximo vai no outro slot)
+    private long sequence;
+
+    //Ultimo snapshot lido pelo load
+    private long board;
+    private long randomState;
+    private long seed;
+    private long elapsedMillis;
+    private int score;
+    private int moves;
+    private int flags;
+
+    //========================================================================//
+    public SaveGame(File file) throws IOException {
+        File dir = file.getAbsoluteFile().getParentFile();
+        if (dir != null && !dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Não foi possivel criar " + dir);
+        }
+        //O mapeamento continua valido depois de fechar o canal
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            map = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_BYTES);
+        }
+        if (map.getInt(0) != MAGIC || map.getInt(4) != VERSION) {
+            for (int i = 0; i < FILE_BYTES; i += 8) {
+                map.putLong(i, 0);
+            }
+            map.putInt(0, MAGIC);
+            map.putInt(4, VERSION);
+        }
+        sequence = Math.max(readSequence(0), readSequence(1));
+    }
+
+    //Arquivo do jogo (DEFAULT_FILE), aberto na primeira chamada. null se não der para abrir
+    public static synchronized SaveGame getInstance() {
+        if (instance == null && !instanceFailed) {
+            try {
+                instance = new SaveGame(DEFAULT_FILE);
+            } catch (IOException e) {
+                e.printStackTrace();
+                instanceFailed = true;
+            }
+        }
+        return instance;
+    }
+
+    //==============================GRAVAR====================================//
+    //Escreve o snapshot no slot livre, o checksum por ultimo
+    public void write(long board, int score, int moves, long randomState, long seed, long elapsedMillis, int flags) {
+        long next = sequence + 1;
+        int base = slotOffset((int) (next & 1));
+        map.putLong(base, next);
+        map.putLong(base + 8, board);
+        map.putLong(base + 16, randomState);
+        map.putLong(base + 24, seed);
+        map.putLong(base + 32, elapsedMillis);
+        map.putInt(base + 40, score);
+        map.putInt(base + 44, moves);
+        map.putInt(base + 48, flags);
+        map.putInt(base + 52, 0);
+        map.putLong(base + CHECKSUM, checksum(base));
+        sequence = next;
+    }
+
+    //Direção do movimento 'index' (escrita antes do snapshot que conta esse movimento)
+    public void writeMove(int index, int dir) {
+        if (index >= MAX_MOVES) {
+            return;
+        }
+        int position = FIRST_MOVE + (index >> 2);
+        int shift = (index & 3) * 2;
+        int packed = shift == 0 ? 0 : map.get(position) & ~(3 << shift);
+        map.put(position, (byte) (packed | dir << shift));
+    }
+
+    //===============================LER======================================//
+    //Carrega o snapshot mais novo que confere (false se não houver nenhum)
+    public boolean load() {
+        long first = readSequence(0);
+        long second = readSequence(1);
+        if (first == 0 && second == 0) {
+            return false;
+        }
+        int base = slotOffset(first > second ? 0 : 1);
+        board = map.getLong(base + 8);
+        randomState = map.getLong(base + 16);
+        seed = map.getLong(base + 24);
+        elapsedMillis = map.getLong(base + 32);
+        score = map.getInt(base + 40);
+        moves = map.getInt(base + 44);
+        flags = map.getInt(base + 48);
+        return true;
+    }
+
+    //Coloca no replay as direções dos 'count' primeiros movimentos (false se passou de MAX_MOVES)
+    public boolean readMoves(Replay replay, int count) {
+        if (count > MAX_MOVES) {
+            return false;
+        }
+        for (int i = 0; i < count; i++) {
+            replay.add((map.get(FIRST_MOVE + (i >> 2)) >>> ((i & 3) * 2)) & 3);
+        }
+        return true;
+    }
+
+    //Sequencia do slot, 0 se estiver vazio ou com checksum errado
+    private long readSequence(int slot) {
+        int base = slotOffset(slot);
+        long value = map.getLong(base);
+        if (value == 0 || map.getLong(base + CHECKSUM) != checksum(base)) {
+            return 0;
+        }
+        return value;
+    }
+
+    //Mistura os 7 longs do slot (finalizador do MurmurHash3 a cada passo)
+    private long checksum(int base) {
+        long h = MAGIC;
+        for (int i = 0; i < CHECKSUM; i += 8) {
+            h ^= map.getLong(base + i);
+            h ^= h >>> 33;
+            h *= 0xFF51AFD7ED558CCDL;
+            h ^= h >>> 33;
+        }
+        return h;
+    }
+
+    private static int slotOffset(int slot) {
+        return FIRST_SLOT + slot * SLOT_BYTES;
+    }
+
+    //========================GETTERS e SETTERS===============================//
+    public long getBoard() {
+        return board;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getMoves() {
+        return moves;
+    }
+
+    public long getRandomState() {
+        return randomState;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public int getFlags() {
+        return flags;
+    }
+}
@@ -1,37 +1,119 @@
 package pkg2048.Servidor;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 
-//Pega retorno da URL (direcao  do jogo)
+//========================================================================//
+/*
+ Cliente HTTP do servidor de direções, um objeto reaproveitado em todas as requisições.
+ O HttpURLConnection devolve a conexão para o pool (keep-alive) quando a resposta é lida
+ ate o fim e o stream é fechado, por isso o corpo é sempre lido inteiro, inclusive nos erros.
+ Só quando a requisição falha sem resposta a conexão é descartada (disconnect).
+ O corpo é lido sempre no mesmo buffer. Não é thread-safe: uma instancia por thread.
+
+ O endereço pode ser trocado sem recompilar com -D2048.servidor=http://host:porta/...
+ */
 public class HttpReturn {
 
-    private final String USER_AGENT = "Mozilla/5.0";
-    // HTTP GET request
-    public StringBuffer sendGet() throws Exception {
+    public static final String DEFAULT_URL = "http://localhost:8080/Servidor/webresources/2048";
+
+    private static final String USER_AGENT = "Mozilla/5.0";
+
+    //Timeouts padrão (ms)
+    public static final int CONNECT_TIMEOUT = 2000;
+    public static final int READ_TIMEOUT = 5000;
+
+    //Long-poll: o servidor segura a resposta por ate 25 s, entao o timeout daqui é maior
+    public static final int WAIT_TIMEOUT = 30000;
 
-        String url = "http://localhost:8080/Servidor/webresources/2048";
-        URL obj = new URL(url);
-        HttpURLConnection con = (HttpURLConnection) obj.openConnection();
+    private final URL pollUrl;
+    private final URL waitUrl;
+    private final int connectTimeout;
+    private final int readTimeout;
+    private final int waitTimeout;
 
-        // optional default is GET
-        con.setRequestMethod("GET");
+    //Buffer da resposta, cresce se precisar e nunca é recriado
+    private byte[] buffer = new byte[256];
+    private int length;
+
+    //========================================================================//
+    public HttpReturn() {
+        this(System.getProperty("2048.servidor", DEFAULT_URL), CONNECT_TIMEOUT, READ_TIMEOUT, WAIT_TIMEOUT);
+    }
+
+    public HttpReturn(String url, int connectTimeout, int readTimeout, int waitTimeout) {
+        try {
+            this.pollUrl = new URL(url);
+            this.waitUrl = new URL(url + "/aguardar");
+        } catch (MalformedURLException e) {
+            throw new IllegalArgumentException("URL do servidor invalida: " + url, e);
+        }
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+        this.waitTimeout = waitTimeout;
+    }
 
-        //add request header
+    //========================================================================//
+    // HTTP GET request
+    public String sendGet() throws IOException {
+        return get(pollUrl, readTimeout);
+    }
+
+    // HTTP GET que espera ate o servidor ter uma direção (ou "" no timeout)
+    public String waitGet() throws IOException {
+        return get(waitUrl, waitTimeout);
+    }
+
+    //Erro HTTP vira exceção (404 vira FileNotFoundException, como o HttpURLConnection faz)
+    private String get(URL url, int timeout) throws IOException {
+        HttpURLConnection con = (HttpURLConnection) url.openConnection();
+        con.setConnectTimeout(connectTimeout);
+        con.setReadTimeout(timeout);
         con.setRequestProperty("User-Agent", USER_AGENT);
 
-        int responseCode = con.getResponseCode();
+        int responseCode;
+        try {
+            responseCode = con.getResponseCode();
+            if (responseCode < HttpURLConnection.HTTP_BAD_REQUEST) {
+                read(con.getInputStream());
+                return new String(buffer, 0, length, StandardCharsets.UTF_8);
+            }
+            read(con.getErrorStream());
+        } catch (IOException e) {
+            con.disconnect();
+            throw e;
+        }
 
-        BufferedReader in = new BufferedReader(new InputStreamReader(con.getInputStream()));
-        String inputLine;
-        StringBuffer response = new StringBuffer();
+        if (responseCode == HttpURLConnection.HTTP_NOT_FOUND) {
+            throw new FileNotFoundException(url.toString());
+        }
+        throw new IOException("HTTP " + responseCode + " em " + url + ": "
+                + new String(buffer, 0, length, StandardCharsets.UTF_8));
+    }
 
-        while ((inputLine = in.readLine()) != null) {
-            response.append(inputLine);
+    //Lê o corpo inteiro para o buffer e fecha o stream (a conexão volta para o pool)
+    private void read(InputStream in) throws IOException {
+        length = 0;
+        if (in == null) {
+            return;
+        }
+        try {
+            int n;
+            while ((n = in.read(buffer, length, buffer.length - length)) != -1) {
+                length += n;
+                if (length == buffer.length) {
+                    byte[] bigger = new byte[buffer.length * 2];
+                    System.arraycopy(buffer, 0, bigger, 0, length);
+                    buffer = bigger;
+                }
+            }
+        } finally {
+            in.close();
         }
-        in.close();
-        return response;
     }
 }
@@ -0,0 +1,53 @@
+package pkg2048.Servidor;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+//========================================================================//
+/*
+ Fila circular de direções, tamanho fixo e sem lock.
+ Feita para exatamente uma thread produtora (cliente de rede) e uma consumidora (loop do jogo):
+ cada lado só escreve no seu proprio indice. Se a fila estiver cheia o movimento novo é descartado.
+ */
+public class MoveQueue {
+
+    private final int[] buffer;
+    private final int mask;
+
+    //Proxima posição a ler (consumidor) e a escrever (produtor)
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    //capacity é arredondada para a proxima potencia de 2
+    public MoveQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        buffer = new int[size];
+        mask = size - 1;
+    }
+
+    //========================================================================//
+    //Produtor: retorna false se a fila estiver cheia
+    public boolean offer(int move) {
+        long t = tail.get();
+        if (t - head.get() == buffer.length) {
+            return false;
+        }
+        buffer[(int) t & mask] = move;
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    //Consumidor: retorna -1 se a fila estiver vazia, nunca bloqueia
+    public int poll() {
+        long h = head.get();
+        if (h == tail.get()) {
+            return -1;
+        }
+        int move = buffer[(int) h & mask];
+        head.lazySet(h + 1);
+        return move;
+    }
+
+    public int size() {
+        return (int) (tail.get() - head.get());
+    }
+}
@@ -0,0 +1,113 @@
+package pkg2048.Servidor;
+
+import java.io.FileNotFoundException;
+import pkg2048.GameEngine;
+
+//========================================================================//
+/*
+ Busca as direções do servidor em uma thread propria e coloca na MoveQueue.
+ O loop do jogo só lê a fila, então um servidor lento ou fora do ar nunca trava a tela.
+ Por padrão usa long-poll (/aguardar): a requisição fica parada no servidor ate chegar
+ uma direção, sem trafego enquanto ninguem joga. Se o servidor não tiver esse endpoint
+ volta para o polling a cada pollIntervalMillis.
+ Quando o servidor não responde o intervalo dobra a cada falha (ate maxBackoffMillis)
+ e o erro é mostrado uma vez só, ate a conexão voltar.
+ */
+public class RemoteMoveClient implements Runnable {
+
+    private final HttpReturn http = new HttpReturn();
+    private final MoveQueue queue;
+    private final long pollIntervalMillis;
+    private final long maxBackoffMillis;
+
+    private volatile boolean running;
+    private boolean longPoll = true;
+    private Thread thread;
+
+    //========================================================================//
+    public RemoteMoveClient(int queueCapacity, long pollIntervalMillis, long maxBackoffMillis) {
+        this.queue = new MoveQueue(queueCapacity);
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    //========================================================================//
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this, "remote-moves");
+        thread.setDaemon(true);    //não impede o jogo de fechar
+        thread.start();
+    }
+
+    public synchronized void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    //========================================================================//
+    @Override
+    public void run() {
+        long delay = pollIntervalMillis;
+        boolean offline = false;
+
+        while (running) {
+            try {
+                String movement = longPoll ? http.waitGet() : http.sendGet();
+                int dir = parseDirection(movement);
+                if (dir != -1) {
+                    queue.offer(dir);
+                }
+                if (offline) {
+                    System.err.println("Servidor de movimentos conectado");
+                    offline = false;
+                }
+                //No long-poll a proxima espera começa na hora
+                delay = longPoll ? 0 : pollIntervalMillis;
+            } catch (FileNotFoundException e) {
+                System.err.println("Servidor sem long-poll, usando polling");
+                longPoll = false;
+                delay = pollIntervalMillis;
+            } catch (Exception e) {
+                if (!offline) {
+                    System.err.println("Servidor de movimentos indisponivel: " + e);
+                    offline = true;
+                }
+                delay = Math.min(Math.max(delay, pollIntervalMillis) * 2, maxBackoffMillis);
+            }
+
+            if (delay == 0) {
+                continue;
+            }
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    //Converte o texto do servidor em direção, ou -1 se não tiver direção
+    public static int parseDirection(String movement) {
+        if (movement.contains("cima") || movement.contains("up")) {
+            return GameEngine.UP;
+        } else if (movement.contains("baixo") || movement.contains("down")) {
+            return GameEngine.DOWN;
+        } else if (movement.contains("esquerda") || movement.contains("left")) {
+            return GameEngine.LEFT;
+        } else if (movement.contains("direita") || movement.contains("right")) {
+            return GameEngine.RIGHT;
+        }
+        return -1;
+    }
+
+    //========================GETTERS e SETTERS===============================//
+    //Direção recebida mais antiga, ou -1 se não houver (não bloqueia)
+    public int poll() {
+        return queue.poll();
+    }
+}
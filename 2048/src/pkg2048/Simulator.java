@@ -0,0 +1,201 @@
+package pkg2048;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+//========================================================================//
+/*
+ Joga N partidas sem tela, em paralelo, e mostra desempenho e resultados.
+ Cada thread tem o seu proprio Random e a sua propria Policy. O jogo i sempre usa
+ a semente (semente + i), então o resultado não depende do numero de threads.
+ Os resultados são somados localmente em cada thread e publicados no final em
+ contadores atomicos (sem lock).
+ Com [placar] cada partida vai para o Leaderboard desse arquivo (a semente gravada é semente + i).
+
+ Uso: java -cp 2048.jar pkg2048.Simulator [jogos] [random|greedy|expectimax] [threads] [semente] [placar]
+ */
+public class Simulator {
+
+    //Expoentes de 0 a 15 (peça maxima por partida)
+    private static final int TILES = 16;
+
+    private final int games;
+    private final String policyName;
+    private final int threads;
+    private final long seed;
+
+    //Resultados
+    private final AtomicInteger nextGame = new AtomicInteger();
+    private final AtomicLongArray maxTileHistogram = new AtomicLongArray(TILES);
+    private final AtomicLongArray totals = new AtomicLongArray(2); //0 = movimentos, 1 = vitorias
+    private final int[] scores;
+
+    //Placar onde as partidas são registradas (opcional)
+    private Leaderboard leaderboard;
+
+    //========================================================================//
+    public Simulator(int games, String policyName, int threads, long seed) {
+        //O relatorio usa a primeira e a ultima partida
+        if (games <= 0 || threads <= 0) {
+            throw new IllegalArgumentException("Jogos e threads precisam ser positivos: " + games + ", " + threads);
+        }
+        this.games = games;
+        this.policyName = policyName;
+        this.threads = threads;
+        this.seed = seed;
+        this.scores = new int[games];
+        createPolicy(policyName); //falha logo se o nome for invalido
+    }
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        String policy = args.length > 1 ? args[1] : "random";
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : System.nanoTime();
+
+        Simulator simulator = new Simulator(games, policy, threads, seed);
+        Leaderboard leaderboard = null;
+        if (args.length > 4) {
+            leaderboard = new Leaderboard(new File(args[4]), Leaderboard.TOP);
+            simulator.setLeaderboard(leaderboard);
+        }
+        long start = System.nanoTime();
+        simulator.run();
+        simulator.report(System.nanoTime() - start);
+
+        if (leaderboard != null) {
+            leaderboard.close();
+            System.out.println("placar: " + leaderboard.size() + " partidas em " + args[4]);
+        }
+    }
+
+    //========================================================================//
+    //Uma Policy por thread (o ExpectimaxPlayer guarda estado da busca)
+    public static Policy createPolicy(String name) {
+        if (name.equals("random")) {
+            return new RandomPolicy();
+        } else if (name.equals("greedy")) {
+            return new GreedyPolicy();
+        } else if (name.equals("expectimax")) {
+            ExpectimaxPlayer player = new ExpectimaxPlayer(16, Long.MAX_VALUE / 4);
+            player.setMaxDepth(2);
+            return player;
+        }
+        throw new IllegalArgumentException("Politica desconhecida: " + name);
+    }
+
+    //========================================================================//
+    public void run() throws InterruptedException {
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    playGames();
+                }
+            }, "simulator-" + i);
+            workers[i].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+    }
+
+    //Cada thread pega o proximo jogo livre ate acabarem
+    private void playGames() {
+        Policy policy = createPolicy(policyName);
+        Random random = new Random();
+        BitboardEngine engine = new BitboardEngine();
+
+        long[] histogram = new long[TILES];
+        long moves = 0;
+        long wins = 0;
+
+        int game;
+        while ((game = nextGame.getAndIncrement()) < games) {
+            long gameStart = System.nanoTime();
+            int gameMoves = 0;
+            random.setSeed(seed + game);
+            engine.reset();
+            engine.spawn(random);
+            engine.spawn(random);
+
+            while (true) {
+                int dir = policy.chooseMove(engine.getState(), random);
+                if (dir == -1 || !engine.apply(dir)) {
+                    break;
+                }
+                engine.spawn(random);
+                gameMoves++;
+            }
+
+            int maxExponent = Bitboard.maxExponent(engine.getState());
+            moves += gameMoves;
+            scores[game] = engine.getScore();
+            histogram[maxExponent]++;
+            if (engine.isWon()) {
+                wins++;
+            }
+            if (leaderboard != null) {
+                try {
+                    leaderboard.add(engine.getScore(), maxExponent, gameMoves,
+                            (int) ((System.nanoTime() - gameStart) / 1000000), seed + game, LeaderboardEntry.FLAG_SIMULATOR);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+
+        for (int i = 0; i < TILES; i++) {
+            if (histogram[i] != 0) {
+                maxTileHistogram.addAndGet(i, histogram[i]);
+            }
+        }
+        totals.addAndGet(0, moves);
+        totals.addAndGet(1, wins);
+    }
+
+    //========================================================================//
+    public void report(long nanos) {
+        double seconds = nanos / 1e9;
+        long moves = totals.get(0);
+        long wins = totals.get(1);
+
+        int[] sorted = scores.clone();
+        Arrays.sort(sorted);
+        long sum = 0;
+        for (int score : sorted) {
+            sum += score;
+        }
+
+        System.out.println("jogos=" + games + " politica=" + policyName + " threads=" + threads + " semente=" + seed);
+        System.out.printf("tempo: %.2f s  jogos/s: %.1f  movimentos/s: %.0f%n", seconds, games / seconds, moves / seconds);
+        System.out.printf("score: media %.1f  min %d  p50 %d  p90 %d  p99 %d  max %d%n",
+                (double) sum / games, sorted[0], percentile(sorted, 50), percentile(sorted, 90),
+                percentile(sorted, 99), sorted[games - 1]);
+        System.out.printf("vitorias (>= %d): %d (%.2f%%)%n", 1 << Bitboard.WIN_EXPONENT, wins, 100.0 * wins / games);
+
+        System.out.println("peça maxima:");
+        for (int i = 1; i < TILES; i++) {
+            long count = maxTileHistogram.get(i);
+            if (count != 0) {
+                System.out.printf("%8d: %d (%.2f%%)%n", 1 << i, count, 100.0 * count / games);
+            }
+        }
+    }
+
+    private static int percentile(int[] sorted, int percent) {
+        int index = (int) Math.ceil(percent / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+
+    //========================GETTERS e SETTERS===============================//
+    public void setLeaderboard(Leaderboard leaderboard) {
+        this.leaderboard = leaderboard;
+    }
+}
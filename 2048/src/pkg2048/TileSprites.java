@@ -0,0 +1,117 @@
+package pkg2048;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+//========================================================================//
+/*
+ Imagens das peças, uma por valor (2, 4, 8 ... 131072 e acima).
+ Cada imagem é desenhada uma unica vez, na primeira vez que o valor aparece,
+ e depois é compartilhada por todas as peças. Nunca são alteradas depois de prontas.
+ */
+public class TileSprites {
+
+    //Um espaço por expoente possivel de um int
+    private static final BufferedImage[] SPRITES = new BufferedImage[31];
+
+    //Fontes: numeros longos ficam menores para caber na peça
+    private static final Font FONT = Game.main.deriveFont(40f);
+    private static final Font FONT_5_DIGITS = Game.main.deriveFont(30f);
+    private static final Font FONT_6_DIGITS = Game.main.deriveFont(24f);
+
+    private TileSprites() {
+    }
+
+    //========================================================================//
+    //Imagem pronta do valor, desenhada na primeira chamada
+    public static synchronized BufferedImage get(int value) {
+        int exponent = Integer.numberOfTrailingZeros(value);
+        BufferedImage sprite = SPRITES[exponent];
+        if (sprite == null) {
+            sprite = render(value);
+            SPRITES[exponent] = sprite;
+        }
+        return sprite;
+    }
+
+    //======================DRAW TILE=========================================//
+    //Desenha a peça do zero (visivel no pacote para os benchmarks)
+    static BufferedImage render(int value) {
+        BufferedImage image = new BufferedImage(Tile.WIDTH, Tile.HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = (Graphics2D) image.getGraphics();
+
+        Color tileBackground;   //Cor da peça
+        Color tileText;         //Cor do numero da peça
+
+        //Atribuição das cores das peças
+        switch (value) {
+            case 2:
+                tileBackground = new Color(0xEEE4DA);
+                tileText = new Color(0x000000);
+                break;
+            case 4:
+                tileBackground = new Color(0xEDE0C8);
+                tileText = new Color(0x000000);
+                break;
+            case 8:
+                tileBackground = new Color(0xF2B179);
+                tileText = new Color(0xFFFFFF);
+                break;
+            case 16:
+                tileBackground = new Color(0xF59563);
+                tileText = new Color(0xFFFFFF);
+                break;
+            case 32:
+                tileBackground = new Color(0xF67C5F);
+                tileText = new Color(0xFFFFFF);
+                break;
+            case 64:
+                tileBackground = new Color(0xF65E3B);
+                tileText = new Color(0xFFFFFF);
+                break;
+            case 128:
+                tileBackground = new Color(0xEDCF72);
+                tileText = new Color(0xFFFFFF);
+                break;
+            case 256:
+                tileBackground = new Color(0xEDCC61);
+                tileText = new Color(0xFFFFFF);
+                break;
+            case 512:
+                tileBackground = new Color(0xEDC850);
+                tileText = new Color(0xFFFFFF);
+                break;
+            case 1024:
+                tileBackground = new Color(0xEDC53F);
+                tileText = new Color(0xFFFFFF);
+                break;
+            case 2048:
+                tileBackground = new Color(0xEDC22E);
+                tileText = new Color(0xFFFFFF);
+                break;
+            default:    //acima de 2048
+                tileBackground = new Color(0x3C3A32);
+                tileText = new Color(0xFFFFFF);
+                break;
+        }
+
+        //Desenha informações do bloco
+        g.setColor(tileBackground);
+        g.fillRect(0, 0, Tile.WIDTH, Tile.HEIGHT);
+        g.setColor(tileText);
+
+        String text = "" + value;
+        Font font = text.length() <= 4 ? FONT : text.length() == 5 ? FONT_5_DIGITS : FONT_6_DIGITS;
+        g.setFont(font);
+
+        //Centralizando texto
+        int drawX = Tile.WIDTH / 2 - MessageSize.getStringWidth(text, font, g) / 2;
+        int drawY = Tile.HEIGHT / 2 + MessageSize.getStringHeight(text, font, g) / 2;
+        g.drawString(text, drawX, drawY);
+        g.dispose();
+
+        return image;
+    }
+}
@@ -0,0 +1,85 @@
+package pkg2048;
+
+//========================================================================//
+/*
+ Cache das avaliações do expectimax, indexado pelo proprio board (o long é a chave).
+ Tamanho fixo em potencia de 2 (memoria limitada), uma entrada por posição da tabela.
+ Cada valor guarda o resultado (float), a profundidade buscada e a geração (busca) que gravou.
+ Substituição: entrada vazia, mesmo board, entrada de busca antiga ou com profundidade menor.
+
+ Pode ser compartilhada entre threads sem lock: a chave é gravada como board ^ valor,
+ então uma leitura que pegar chave e valor de escritas diferentes não confere e vira um miss.
+ */
+public class TranspositionTable {
+
+    private final long[] keys;
+    private final long[] values;
+    private final int mask;
+
+    //Geração atual, incrementada a cada nova busca (antes de as threads começarem)
+    private int generation = 1;
+
+    //========================================================================//
+    //bits = log2 do numero de entradas (ex: 20 -> 1M entradas, 16 MB)
+    public TranspositionTable(int bits) {
+        keys = new long[1 << bits];
+        values = new long[1 << bits];
+        mask = (1 << bits) - 1;
+    }
+
+    //========================================================================//
+    //Embaralha os bits do board para espalhar as entradas (finalizador do MurmurHash3)
+    static int index(long board, int mask) {
+        long h = board;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+
+    //Retorna o valor se existir uma entrada com profundidade >= depth, senão NaN
+    public float get(long board, int depth) {
+        int i = index(board, mask);
+        long value = values[i];
+        if ((keys[i] ^ value) != board || value == 0 || (int) (value & 0xFF) < depth) {
+            return Float.NaN;
+        }
+        return Float.intBitsToFloat((int) (value >>> 32));
+    }
+
+    public void put(long board, int depth, float score) {
+        int i = index(board, mask);
+        long old = values[i];
+        if (old != 0 && (keys[i] ^ old) != board
+                && (int) ((old >>> 8) & 0xFF) == (generation & 0xFF)
+                && (int) (old & 0xFF) > depth) {
+            return; //mantem a entrada mais profunda da busca atual
+        }
+        long value = pack(score, depth, generation);
+        keys[i] = board ^ value;
+        values[i] = value;
+    }
+
+    static long pack(float score, int depth, int generation) {
+        return ((long) Float.floatToRawIntBits(score) << 32) | ((generation & 0xFF) << 8) | (depth & 0xFF);
+    }
+
+    //Chamado a cada nova busca: as entradas antigas continuam validas mas podem ser substituidas
+    public void nextGeneration() {
+        generation++;
+        if ((generation & 0xFF) == 0) {
+            generation++;
+        }
+    }
+
+    public void clear() {
+        java.util.Arrays.fill(keys, 0);
+        java.util.Arrays.fill(values, 0);
+    }
+
+    public int size() {
+        return keys.length;
+    }
+}
@@ -0,0 +1,28 @@
+package ws;
+
+//Resposta de um lote de direções: estado final, pontos ganhos no lote e quantas direções mexeram o board
+public class BatchResult {
+
+    private final GameState state;
+    private final int scoreDelta;
+    private final int applied;
+
+    public BatchResult(GameState state, int scoreDelta, int applied) {
+        this.state = state;
+        this.scoreDelta = scoreDelta;
+        this.applied = applied;
+    }
+
+    //========================GETTERS e SETTERS===============================//
+    public GameState getState() {
+        return state;
+    }
+
+    public int getScoreDelta() {
+        return scoreDelta;
+    }
+
+    public int getApplied() {
+        return applied;
+    }
+}
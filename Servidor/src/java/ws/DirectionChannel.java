@@ -0,0 +1,207 @@
+package ws;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+//Guarda as filas de direções de cada jogo, tudo em memoria
+//Quem não informa o jogo usa o DEFAULT_GAME (mesmo comportamento de antes, um jogo só)
+//Filas vazias, sem ninguem esperando e sem uso ha IDLE_TIMEOUT_MILLIS são descartadas, como as GameSessions
+public class DirectionChannel {
+
+    public static final String DEFAULT_GAME = "padrao";
+
+    //Maximo de direções pendentes por jogo
+    public static final int QUEUE_CAPACITY = 256;
+
+    //Fila parada por esse tempo (e vazia) é descartada
+    public static final long IDLE_TIMEOUT_MILLIS = Long.getLong("ws.queue.idle", TimeUnit.MINUTES.toMillis(10));
+
+    //Intervalo entre as varreduras de filas paradas
+    public static final long EVICTION_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private static final Map<String, DirectionQueue> games = new ConcurrentHashMap<>();
+
+    private static final ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "queue-evictor");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    static {
+        //Recupera as direções que estavam pendentes quando o servidor caiu
+        Files.load();
+
+        evictor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                evictIdle(System.currentTimeMillis() - IDLE_TIMEOUT_MILLIS);
+            }
+        }, EVICTION_INTERVAL_MILLIS, EVICTION_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private DirectionChannel() {
+    }
+
+    //Para a varredura (undeploy no container, ver ShutdownListener)
+    static void shutdown() {
+        evictor.shutdownNow();
+    }
+
+    //Fila do jogo, criada na primeira vez que é usada (só quem escreve ou espera cria)
+    public static DirectionQueue get(String game) {
+        DirectionQueue queue = games.get(game);
+        if (queue == null) {
+            DirectionQueue created = new DirectionQueue(QUEUE_CAPACITY);
+            queue = games.putIfAbsent(game, created);
+            if (queue == null) {
+                queue = created;
+            }
+        }
+        queue.touch();
+        return queue;
+    }
+
+    //Fila do jogo se ja existir, sem criar (caminhos de leitura)
+    public static DirectionQueue find(String game) {
+        return games.get(game);
+    }
+
+    //Entrega a direção para quem estiver esperando ou coloca no fim da fila
+    public static boolean publish(String game, String dir) {
+        while (true) {
+            DirectionQueue queue = get(game);
+            synchronized (queue) {
+                //Descartada entre o get e o lock: tenta de novo com a fila nova
+                if (!queue.isRetired()) {
+                    return queue.offer(dir);
+                }
+            }
+        }
+    }
+
+    //Todas as direções em ordem, ou nenhuma se não couberem
+    public static boolean publishAll(String game, String[] dirs) {
+        while (true) {
+            DirectionQueue queue = get(game);
+            synchronized (queue) {
+                if (!queue.isRetired()) {
+                    return queue.offerAll(dirs);
+                }
+            }
+        }
+    }
+
+    //Proxima direção do jogo, ou null se não tem nenhuma
+    public static String next(String game) {
+        DirectionQueue queue = games.get(game);
+        return queue == null ? null : queue.poll();
+    }
+
+    //Entrega a proxima direção ou guarda o cliente ate chegar uma
+    //(cria a fila: o cliente fica guardado nela, e ela só pode ser descartada depois que ele sair)
+    public static void await(String game, DirectionWaiter waiter) {
+        while (true) {
+            DirectionQueue queue = get(game);
+            synchronized (queue) {
+                if (!queue.isRetired()) {
+                    queue.await(waiter);
+                    return;
+                }
+            }
+        }
+    }
+
+    //Cliente desistiu (timeout ou conexão fechada)
+    public static void cancel(String game, DirectionWaiter waiter) {
+        DirectionQueue queue = games.get(game);
+        if (queue != null) {
+            queue.cancel(waiter);
+        }
+    }
+
+    //Remove as filas vazias, sem clientes esperando e sem uso desde 'oldest'
+    static int evictIdle(long oldest) {
+        int removed = 0;
+        Iterator<DirectionQueue> it = games.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().retireIfIdle(oldest)) {
+                it.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    static Map<String, DirectionQueue> getGames() {
+        return games;
+    }
+
+    //Mesmo JSON que o Gson gera para uma string (inclusive os escapes de HTML),
+    //sem carregar o Gson: o caminho das direções não paga a inicialização dele (conferido pelo JsonEscapeCheck)
+    static String toJson(String dir) {
+        if (dir == null) {
+            return "null";
+        }
+        StringBuilder json = new StringBuilder(dir.length() + 2);
+        json.append('"');
+        for (int i = 0; i < dir.length(); i++) {
+            char c = dir.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                case '\b':
+                    json.append("\\b");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\f':
+                    json.append("\\f");
+                    break;
+                case '<':
+                case '>':
+                case '&':
+                case '=':
+                case '\'':
+                case '\u2028':
+                case '\u2029':
+                    appendUnicode(json, c);
+                    break;
+                default:
+                    if (c < 0x20) {
+                        appendUnicode(json, c);
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        return json.append('"').toString();
+    }
+
+    private static void appendUnicode(StringBuilder json, char c) {
+        json.append("\\u");
+        String hex = Integer.toHexString(c);
+        for (int i = hex.length(); i < 4; i++) {
+            json.append('0');
+        }
+        json.append(hex);
+    }
+}
@@ -0,0 +1,132 @@
+package ws;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+//Fila de direções de um jogo: as direções saem na mesma ordem em que foram postadas
+//Com capacidade limitada para um cliente que sumiu não acumular direções para sempre
+public class DirectionQueue {
+
+    private final int capacity;
+
+    //Direções que ainda não foram entregues
+    private final ArrayDeque<String> moves;
+
+    //Clientes parados esperando uma direção (long-poll)
+    private final ArrayDeque<DirectionWaiter> waiting = new ArrayDeque<>();
+
+    //Limite de direções por segundo e descarte de repetidas deste jogo
+    private final MoveLimiter limiter = new MoveLimiter();
+
+    //Ultimo uso da fila; vazia, sem ninguem esperando e parada ela é descartada (ver DirectionChannel)
+    private volatile long lastAccess = System.currentTimeMillis();
+
+    //Ja saiu do mapa de jogos: quem ainda tiver a referencia pega uma fila nova
+    private boolean retired;
+
+    public DirectionQueue(int capacity) {
+        this.capacity = capacity;
+        this.moves = new ArrayDeque<>(capacity);
+    }
+
+    //Entrega para quem estiver esperando ou guarda no fim da fila
+    //Retorna false se a fila esta cheia (a direção é descartada)
+    public synchronized boolean offer(String dir) {
+        touch();
+        //Só entrega direto se não houver nada na frente, para manter a ordem
+        if (moves.isEmpty()) {
+            DirectionWaiter waiter;
+            while ((waiter = waiting.poll()) != null) {
+                if (waiter.deliver(DirectionChannel.toJson(dir))) {
+                    return true;
+                }
+            }
+        }
+        if (moves.size() >= capacity) {
+            return false;
+        }
+        moves.add(dir);
+        Files.markDirty();
+        return true;
+    }
+
+    //Coloca todas as direções de uma vez, em ordem, ou nenhuma se não couberem na fila
+    public synchronized boolean offerAll(String[] dirs) {
+        if (moves.size() + dirs.length > capacity) {
+            return false;
+        }
+        for (String dir : dirs) {
+            offer(dir);
+        }
+        return true;
+    }
+
+    //Proxima direção, ou null se a fila esta vazia
+    public synchronized String poll() {
+        touch();
+        String dir = moves.poll();
+        if (dir != null) {
+            Files.markDirty();
+        }
+        return dir;
+    }
+
+    //Entrega a proxima direção na hora ou guarda o cliente ate chegar uma
+    public synchronized void await(DirectionWaiter waiter) {
+        touch();
+        String dir = moves.poll();
+        if (dir == null) {
+            waiting.add(waiter);
+            return;
+        }
+        Files.markDirty();
+        if (!waiter.deliver(DirectionChannel.toJson(dir))) {
+            //Cliente ja tinha ido embora, a direção volta para a frente da fila
+            moves.addFirst(dir);
+        }
+    }
+
+    //Cliente desistiu (timeout ou conexão fechada)
+    public synchronized void cancel(DirectionWaiter waiter) {
+        Iterator<DirectionWaiter> it = waiting.iterator();
+        while (it.hasNext()) {
+            if (it.next() == waiter) {
+                it.remove();
+                return;
+            }
+        }
+    }
+
+    public void touch() {
+        lastAccess = System.currentTimeMillis();
+    }
+
+    //Marca a fila como descartada se ela esta vazia, sem clientes esperando e sem uso desde 'oldest'
+    synchronized boolean retireIfIdle(long oldest) {
+        if (moves.isEmpty() && waiting.isEmpty() && lastAccess < oldest) {
+            retired = true;
+        }
+        return retired;
+    }
+
+    synchronized boolean isRetired() {
+        return retired;
+    }
+
+    //Copia das direções pendentes, para o Files gravar
+    public synchronized String[] snapshot() {
+        return moves.toArray(new String[moves.size()]);
+    }
+
+    public synchronized int size() {
+        return moves.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public MoveLimiter getLimiter() {
+        return limiter;
+    }
+}
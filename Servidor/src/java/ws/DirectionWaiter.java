@@ -0,0 +1,9 @@
+package ws;
+
+//Cliente parado esperando uma direção (long-poll)
+//No GameWS é o AsyncResponse do JAX-RS, no EmbeddedServer uma thread esperando a resposta
+public interface DirectionWaiter {
+
+    //Entrega a direção (ja em JSON), retorna false se o cliente ja foi embora
+    public boolean deliver(String json);
+}
@@ -0,0 +1,343 @@
+package ws;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+//========================================================================//
+/*
+ Os mesmos endpoints do GameWS em um servidor HTTP embutido (com.sun.net.httpserver do JDK),
+ sem container Java EE. Cada requisição roda em uma thread virtual quando a JVM tem
+ (Java 21+), senão em um pool de ate MAX_THREADS threads do sistema.
+ Com threads virtuais o long-poll pode simplesmente bloquear: um cliente parado custa
+ poucos KB de heap em vez de uma thread do sistema.
+ Sem elas cada cliente parado segura uma thread do pool, então só MAX_WAITERS podem esperar
+ ao mesmo tempo (os outros recebem 503) e sempre sobram threads para as requisições curtas.
+ Para milhares de clientes no long-poll use Java 21+.
+ */
+public class EmbeddedServer {
+
+    //Mesmo caminho do deploy no GlassFish (contexto /Servidor), os clientes não precisam mudar
+    public static final String DEFAULT_CONTEXT = "/Servidor/webresources/2048";
+
+    //Fila de conexões ainda não aceitas
+    private static final int BACKLOG = 1024;
+
+    //Maior corpo aceito (um lote de MAX_BATCH direções em JSON cabe com folga)
+    private static final int MAX_BODY = 1 << 20;
+
+    //Threads do pool quando a JVM não tem threads virtuais (-Dws.threads.max=n)
+    public static final int MAX_THREADS = Math.max(2, Integer.getInteger("ws.threads.max", 256));
+
+    //Clientes parados no long-poll nesse pool: um quarto das threads fica para as requisições curtas
+    public static final int MAX_WAITERS = MAX_THREADS - Math.max(1, MAX_THREADS / 4);
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final String contextPath;
+    private final boolean virtualThreads;
+
+    //Vagas de long-poll, null com threads virtuais (sem limite)
+    private final Semaphore waiters;
+
+    static {
+        //O HttpServer do JDK manda cabeçalhos e corpo em escritas separadas; com o Nagle ligado a segunda
+        //espera o ACK atrasado do cliente e toda resposta numa conexão keep-alive leva ~40 ms a mais.
+        //Precisa estar definido antes do primeiro HttpServer.create (o JDK lê uma vez só)
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    //========================================================================//
+    public EmbeddedServer(int port, String contextPath) throws IOException {
+        this.contextPath = contextPath;
+        this.server = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+
+        ExecutorService virtual = newVirtualThreadExecutor();
+        this.virtualThreads = virtual != null;
+        this.executor = virtual != null ? virtual : newThreadPool();
+        this.waiters = virtual != null ? null : new Semaphore(MAX_WAITERS);
+
+        server.createContext(contextPath, new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                try {
+                    route(exchange);
+                } catch (BodyTooLargeException e) {
+                    send(exchange, Reply.status(413));
+                } finally {
+                    exchange.close();
+                }
+            }
+        });
+        server.setExecutor(executor);
+    }
+
+    //Executors.newVirtualThreadPerTaskExecutor() por reflexão, o projeto compila para Java 8
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    //Pool limitado: com todas as threads ocupadas as requisições esperam na fila em vez de criar mais threads
+    private static ExecutorService newThreadPool() {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(MAX_THREADS, MAX_THREADS, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>());
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    //=============================ROTAS======================================//
+    private void route(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath().substring(contextPath.length());
+        if (path.startsWith("/")) {
+            path = path.substring(1);
+        }
+        if (path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+        String game = getQueryParam(exchange, "jogo", DirectionChannel.DEFAULT_GAME);
+        boolean binary = wantsBinary(exchange);
+
+        if (path.isEmpty()) {
+            if (!"GET".equals(method)) {
+                send(exchange, Reply.status(405));
+                return;
+            }
+            send(exchange, GameService.nextDirection(game));
+        } else if (path.equals("aguardar")) {
+            if (!"GET".equals(method)) {
+                send(exchange, Reply.status(405));
+                return;
+            }
+            //Sem vaga (pool de threads cheio de clientes parados): 503, o cliente tenta de novo depois
+            if (waiters != null && !waiters.tryAcquire()) {
+                send(exchange, Reply.status(503));
+                return;
+            }
+            try {
+                send(exchange, Reply.json(waitDirection(game)));
+            } finally {
+                if (waiters != null) {
+                    waiters.release();
+                }
+            }
+        } else if (path.equals("direcao")) {
+            if (!"POST".equals(method)) {
+                send(exchange, Reply.status(405));
+                return;
+            }
+            send(exchange, GameService.publish(game, readText(exchange)));
+        } else if (path.equals("direcao/batch")) {
+            if (!"POST".equals(method)) {
+                send(exchange, Reply.status(405));
+                return;
+            }
+            if (isBinaryBody(exchange)) {
+                send(exchange, GameService.batch(game, readBody(exchange), binary));
+            } else {
+                send(exchange, GameService.batch(game, readText(exchange), binary));
+            }
+        } else if (path.equals("jogo")) {
+            if (!"POST".equals(method)) {
+                send(exchange, Reply.status(405));
+                return;
+            }
+            send(exchange, GameService.createGame(binary));
+        } else if (path.startsWith("jogo/")) {
+            routeGame(exchange, method, path.substring("jogo/".length()), binary);
+        } else {
+            send(exchange, Reply.status(404));
+        }
+    }
+
+    //jogo/{id} e jogo/{id}/direcao
+    private void routeGame(HttpExchange exchange, String method, String rest, boolean binary) throws IOException {
+        int slash = rest.indexOf('/');
+        String id = slash == -1 ? rest : rest.substring(0, slash);
+        String action = slash == -1 ? "" : rest.substring(slash + 1);
+
+        if (action.isEmpty() && "GET".equals(method)) {
+            send(exchange, GameService.getGame(id, binary));
+        } else if (action.isEmpty() && "DELETE".equals(method)) {
+            send(exchange, GameService.deleteGame(id));
+        } else if (action.equals("direcao") && "POST".equals(method)) {
+            if (isBinaryBody(exchange)) {
+                send(exchange, GameService.moveGame(id, readBody(exchange), binary));
+            } else {
+                send(exchange, GameService.moveGame(id, readText(exchange), binary));
+            }
+        } else if (action.isEmpty() || action.equals("direcao")) {
+            send(exchange, Reply.status(405));
+        } else {
+            send(exchange, Reply.status(404));
+        }
+    }
+
+    //===========================LONG-POLL====================================//
+    //A thread da requisição fica parada ate chegar uma direção ou dar o timeout
+    private String waitDirection(String game) {
+        final CompletableFuture<String> result = new CompletableFuture<>();
+        DirectionWaiter waiter = new DirectionWaiter() {
+            @Override
+            public boolean deliver(String json) {
+                return result.complete(json);
+            }
+        };
+        GameService.awaitDirection(game, waiter);
+
+        try {
+            return result.get(GameService.WAIT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            result.complete(GameService.cancelWait(game, waiter));
+        } catch (InterruptedException e) {
+            //Servidor parando
+            Thread.currentThread().interrupt();
+            result.complete(GameService.cancelWait(game, waiter));
+        }
+        //Se uma direção chegou junto com o timeout ela ganha do ""
+        return result.join();
+    }
+
+    //============================HTTP========================================//
+    private static void send(HttpExchange exchange, Reply reply) throws IOException {
+        if (reply.getCreated() != null) {
+            exchange.getResponseHeaders().set("Location", exchange.getRequestURI().getPath() + "/" + reply.getCreated());
+        }
+        if (reply.getRetryAfter() > 0) {
+            exchange.getResponseHeaders().set("Retry-After", Long.toString(reply.getRetryAfter()));
+        }
+        byte[] body = reply.getBody();
+        if (body == null) {
+            exchange.sendResponseHeaders(reply.getStatus(), -1);
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", reply.getType());
+        exchange.sendResponseHeaders(reply.getStatus(), body.length);
+        OutputStream out = exchange.getResponseBody();
+        out.write(body);
+        out.close();
+    }
+
+    private static byte[] readBody(HttpExchange exchange) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] chunk = new byte[4096];
+        try (InputStream in = exchange.getRequestBody()) {
+            int n;
+            while ((n = in.read(chunk)) != -1) {
+                body.write(chunk, 0, n);
+                if (body.size() > MAX_BODY) {
+                    throw new BodyTooLargeException();
+                }
+            }
+        }
+        return body.toByteArray();
+    }
+
+    private static String readText(HttpExchange exchange) throws IOException {
+        return new String(readBody(exchange), StandardCharsets.UTF_8);
+    }
+
+    private static boolean isBinaryBody(HttpExchange exchange) {
+        return isMediaType(exchange.getRequestHeaders().getFirst("Content-Type"));
+    }
+
+    //Binario só quando o cliente pede explicitamente (um Accept */* continua recebendo JSON)
+    private static boolean wantsBinary(HttpExchange exchange) {
+        String accept = exchange.getRequestHeaders().getFirst("Accept");
+        if (accept == null) {
+            return false;
+        }
+        for (String type : accept.split(",")) {
+            if (isMediaType(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    //Compara só tipo/subtipo, ignorando parametros como ;q=0.9
+    private static boolean isMediaType(String header) {
+        if (header == null) {
+            return false;
+        }
+        int params = header.indexOf(';');
+        String type = params == -1 ? header : header.substring(0, params);
+        return type.trim().equalsIgnoreCase(StateCodec.MEDIA_TYPE);
+    }
+
+    private static String getQueryParam(HttpExchange exchange, String name, String defaultValue) {
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return defaultValue;
+        }
+        for (String pair : query.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals != -1 && pair.substring(0, equals).equals(name)) {
+                try {
+                    return URLDecoder.decode(pair.substring(equals + 1), "UTF-8");
+                } catch (UnsupportedEncodingException e) {
+                    return defaultValue;
+                }
+            }
+        }
+        return defaultValue;
+    }
+
+    //Corpo maior que MAX_BODY, respondido com 413
+    private static class BodyTooLargeException extends IOException {
+
+        private static final long serialVersionUID = 1L;
+    }
+
+    //========================GETTERS e SETTERS===============================//
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public String getContextPath() {
+        return contextPath;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    //Quantos clientes podem ficar parados no long-poll ao mesmo tempo
+    public int getMaxWaiters() {
+        return virtualThreads ? Integer.MAX_VALUE : MAX_WAITERS;
+    }
+}
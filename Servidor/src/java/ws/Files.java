@@ -1,69 +1,162 @@
-package ws;
-
-import java.io.BufferedWriter;
-import java.io.File;
-import java.io.FileWriter;
-import java.util.Formatter;
-import java.util.Scanner;
-
-
-//Cria arquivos para salvar a direcao desejada
-public class Files {
-
-    public Files() {
-
-    }
-
-    //Caminho que será salvo o arquivo
-    static String path = "C:\\Users\\cesar\\Desktop\\2048-master\\Servidor\\src\\java\\direction.txt";
-    //Cria arquivo
-    public static void createDir() {
-        try {
-            //Cria arquivo com sua localização e nome
-            File file = new File(path);
-
-            //Para poder escrever no arquivo
-            FileWriter fw = new FileWriter(file);
-            BufferedWriter bw = new BufferedWriter(fw);
-
-            bw.write("" + 0);
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-
-    }
-    
-    //Pega a string do arquivo
-    public static String loadDir() {
-        String dir;
-        try {
-            File file = new File(path);
-            Scanner sc = new Scanner(file);
-            
-            if (!file.isFile()) {
-                createDir();
-            }
-            dir = sc.next();
-            return dir;
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-        return "";
-    }
-
-    
-    //Modifica a direção
-    public static boolean setDir(String Texto) {
-        FileWriter output = null;
-        try {
-            Formatter file = new Formatter(path);
-             
-            file.format("" + Texto);
-            file.close();
-
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-        return false;
-    }
-}
+package ws;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+
+//Persistencia opcional das filas de direções (write-behind), para recuperar depois de um crash
+//As requisições nunca esperam o disco: só marcam que algo mudou e uma thread grava depois
+public class Files {
+
+    //Caminho do arquivo, vem da propriedade ws.direction.file (sem ela nada é gravado)
+    static String path = System.getProperty("ws.direction.file");
+
+    //Intervalo entre gravações enquanto houver mudanças
+    public static final long WRITE_DELAY_MILLIS = 200;
+
+    //Tempo maximo que o flush espera a gravação que a thread estiver fazendo
+    public static final long FLUSH_TIMEOUT_SECONDS = 10;
+
+    private static final AtomicBoolean dirty = new AtomicBoolean();
+
+    //Uma gravação de cada vez (todas usam o mesmo .tmp). Não é o lock da classe: o markDirty não espera o disco
+    private static final Object saveLock = new Object();
+
+    private static ScheduledExecutorService writer;
+
+    private Files() {
+    }
+
+    public static boolean isEnabled() {
+        return path != null && !path.isEmpty();
+    }
+
+    //Chamado a cada mudança nas filas, a gravação fica para a thread
+    public static void markDirty() {
+        if (isEnabled()) {
+            dirty.set(true);
+            startWriter();
+        }
+    }
+
+    private static synchronized void startWriter() {
+        if (writer != null) {
+            return;
+        }
+        writer = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "direction-writer");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        writer.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                if (dirty.getAndSet(false)) {
+                    try {
+                        save();
+                    } catch (IOException e) {
+                        dirty.set(true);
+                        e.printStackTrace();
+                    }
+                }
+            }
+        }, WRITE_DELAY_MILLIS, WRITE_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    //Grava agora o que ainda estiver pendente (ao desligar o servidor)
+    //Para a thread antes e espera a gravação dela terminar, senão a ultima troca do arquivo podia ser a dela, mais velha
+    public static void flush() {
+        if (!isEnabled()) {
+            return;
+        }
+        ScheduledExecutorService stopped;
+        synchronized (Files.class) {
+            stopped = writer;
+            writer = null;
+        }
+        if (stopped != null) {
+            stopped.shutdown();
+            try {
+                stopped.awaitTermination(FLUSH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (dirty.getAndSet(false)) {
+            try {
+                save();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    //Grava todas as filas em um arquivo temporario e troca pelo antigo de uma vez
+    static void save() throws IOException {
+        synchronized (saveLock) {
+            writeFile();
+        }
+    }
+
+    private static void writeFile() throws IOException {
+        File file = new File(path);
+        File temp = new File(path + ".tmp");
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            Map<String, DirectionQueue> games = DirectionChannel.getGames();
+            for (Map.Entry<String, DirectionQueue> entry : games.entrySet()) {
+                String[] moves = entry.getValue().snapshot();
+                if (moves.length == 0) {
+                    continue;
+                }
+                out.writeBoolean(true);
+                out.writeUTF(entry.getKey());
+                out.writeInt(moves.length);
+                for (String dir : moves) {
+                    out.writeUTF(dir);
+                }
+            }
+            out.writeBoolean(false);
+        }
+        java.nio.file.Files.move(temp.toPath(), file.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    //Coloca de volta nas filas as direções gravadas, na mesma ordem
+    static void load() {
+        if (!isEnabled()) {
+            return;
+        }
+        File file = new File(path);
+        if (!file.isFile()) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            while (in.readBoolean()) {
+                DirectionQueue queue = DirectionChannel.get(in.readUTF());
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    queue.offer(in.readUTF());
+                }
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package ws;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import pkg2048.Servidor.RemoteMoveClient;
+
+//========================================================================//
+/*
+ Regras dos endpoints do jogo, sem nada de HTTP: recebem os parametros ja lidos
+ e devolvem um Reply. O GameWS (JAX-RS, no container) e o EmbeddedServer (standalone)
+ só traduzem a requisição e a resposta, então os dois se comportam igual.
+ */
+public class GameService {
+
+    //Tempo maximo que um cliente fica esperando uma direção (o cliente deve ter timeout maior)
+    public static final long WAIT_TIMEOUT_SECONDS = 25;
+
+    //Maximo de direções aceitas em um lote de um jogo do servidor
+    //(na fila de direções o limite é a capacidade da fila e a rajada do MoveLimiter, o que for menor)
+    public static final int MAX_BATCH = 10000;
+
+    //Cliente mandando mais direções do que o MoveLimiter permite
+    public static final int TOO_MANY_REQUESTS = 429;
+
+    //Nome de cada direção, na ordem das constantes do GameEngine (para a fila de direções)
+    private static final String[] DIRECTION_NAMES = {"esquerda", "direita", "cima", "baixo"};
+
+    //Criado só na primeira resposta em JSON (o Gson demora para inicializar)
+    private static class Json {
+
+        static final Gson gson = new Gson();
+    }
+
+    private GameService() {
+    }
+
+    //=========================FILA DE DIREÇÕES===============================//
+    //Proxima direção da fila do jogo ("xxx" se não tiver nenhuma)
+    public static Reply nextDirection(String game) {
+        String dir = DirectionChannel.next(game);
+        return Reply.json(DirectionChannel.toJson(dir == null ? "xxx" : dir));
+    }
+
+    //Long-poll: entrega a proxima direção para o waiter, agora ou quando chegar
+    public static void awaitDirection(String game, DirectionWaiter waiter) {
+        DirectionChannel.await(game, waiter);
+    }
+
+    //Cliente desistiu, a resposta dele é "" (nenhuma direção)
+    public static String cancelWait(String game, DirectionWaiter waiter) {
+        DirectionChannel.cancel(game, waiter);
+        return DirectionChannel.toJson("");
+    }
+
+    //Todas as direções entram na fila do jogo, em ordem; 503 se a fila estiver cheia
+    //A mesma direção repetida dentro da janela é aceita e descartada (204), acima do limite volta 429
+    public static Reply publish(String game, String content) {
+        MoveLimiter limiter = DirectionChannel.get(game).getLimiter();
+        if (limiter.isRepeat(content)) {
+            limiter.recordAccepted(content);
+            return Reply.status(204);
+        }
+        if (!limiter.tryAcquire()) {
+            return tooManyRequests(limiter, 1);
+        }
+        if (!DirectionChannel.publish(game, content)) {
+            return Reply.status(503);
+        }
+        limiter.recordAccepted(content);
+        return Reply.status(204);
+    }
+
+    //================================LOTES===================================//
+    //Lote como lista JSON: ["cima", "esquerda", ...]
+    public static Reply batch(String game, String content, boolean binaryReply) {
+        String[] moves;
+        try {
+            moves = Json.gson.fromJson(content, String[].class);
+        } catch (JsonSyntaxException e) {
+            return Reply.status(400);
+        }
+        if (moves == null || moves.length == 0) {
+            return Reply.status(400);
+        }
+        if (moves.length > MAX_BATCH) {
+            return Reply.status(413);
+        }
+
+        //Valida o lote inteiro antes de aplicar qualquer direção
+        int[] dirs = new int[moves.length];
+        for (int i = 0; i < moves.length; i++) {
+            dirs[i] = moves[i] == null ? -1 : RemoteMoveClient.parseDirection(moves[i]);
+            if (dirs[i] == -1) {
+                return Reply.status(400);
+            }
+        }
+        return applyBatch(game, dirs, moves, binaryReply);
+    }
+
+    //Mesmo lote no formato binario: um byte por direção
+    public static Reply batch(String game, byte[] content, boolean binaryReply) {
+        if (content == null || content.length == 0) {
+            return Reply.status(400);
+        }
+        if (content.length > MAX_BATCH) {
+            return Reply.status(413);
+        }
+
+        int[] dirs = new int[content.length];
+        String[] moves = new String[content.length];
+        for (int i = 0; i < content.length; i++) {
+            if (content[i] < 0 || content[i] >= DIRECTION_NAMES.length) {
+                return Reply.status(400);
+            }
+            dirs[i] = content[i];
+            moves[i] = DIRECTION_NAMES[content[i]];
+        }
+        return applyBatch(game, dirs, moves, binaryReply);
+    }
+
+    //Se 'game' for uma sessão do servidor as direções são aplicadas de uma vez e volta o estado,
+    //senão entram todas juntas (ou nenhuma) na fila de direções do jogo
+    private static Reply applyBatch(String game, int[] dirs, String[] moves, boolean binaryReply) {
+        //Na sessão o lote é aplicado em um passo só, com o lock da sessão: um token por requisição
+        GameSession session = GameSessions.get(game);
+        if (session != null) {
+            if (!session.getLimiter().tryAcquire()) {
+                return tooManyRequests(session.getLimiter(), 1);
+            }
+            BatchResult result = session.moveAll(dirs);
+            return binaryReply ? Reply.binary(StateCodec.encode(result)) : Reply.json(Json.gson.toJson(result));
+        }
+        //Na fila cada direção é entregue sozinha ao jogo: um token por direção, e o lote inteiro
+        //precisa caber na fila e no balde. Maior que isso nunca passaria: 413, e não 503 ou 429
+        if (moves.length > DirectionChannel.QUEUE_CAPACITY || moves.length > MoveLimiter.BURST) {
+            return Reply.status(413);
+        }
+        MoveLimiter limiter = DirectionChannel.get(game).getLimiter();
+        if (!limiter.tryAcquire(moves.length)) {
+            return tooManyRequests(limiter, moves.length);
+        }
+        if (!DirectionChannel.publishAll(game, moves)) {
+            return Reply.status(503);
+        }
+        return Reply.status(204);
+    }
+
+    //=========================JOGOS NO SERVIDOR===============================//
+    //Cria um jogo novo e retorna o estado inicial (no binario o id vai só no Location)
+    public static Reply createGame(boolean binaryReply) {
+        GameSession session = GameSessions.create();
+        if (session == null) {
+            return Reply.status(503);
+        }
+        return state(session.getState(), binaryReply).created(session.getId());
+    }
+
+    public static Reply getGame(String id, boolean binaryReply) {
+        GameSession session = GameSessions.get(id);
+        if (session == null) {
+            return Reply.status(404);
+        }
+        return state(session.getState(), binaryReply);
+    }
+
+    //Direção pelo nome (cima, baixo, esquerda, direita)
+    public static Reply moveGame(String id, String content, boolean binaryReply) {
+        return moveGame(id, RemoteMoveClient.parseDirection(content), binaryReply);
+    }
+
+    //Direção em um byte (constante do GameEngine)
+    public static Reply moveGame(String id, byte[] content, boolean binaryReply) {
+        if (content == null || content.length != 1 || content[0] < 0 || content[0] >= DIRECTION_NAMES.length) {
+            return Reply.status(400);
+        }
+        return moveGame(id, content[0], binaryReply);
+    }
+
+    private static Reply moveGame(String id, int dir, boolean binaryReply) {
+        GameSession session = GameSessions.get(id);
+        if (session == null) {
+            return Reply.status(404);
+        }
+        if (dir == -1) {
+            return Reply.status(400);
+        }
+        //Repetida dentro da janela: volta o estado sem mexer
+        MoveLimiter limiter = session.getLimiter();
+        if (!limiter.isRepeat(DIRECTION_NAMES[dir])) {
+            if (!limiter.tryAcquire()) {
+                return tooManyRequests(limiter, 1);
+            }
+            session.move(dir);
+        }
+        limiter.recordAccepted(DIRECTION_NAMES[dir]);
+        return state(session.getState(), binaryReply);
+    }
+
+    public static Reply deleteGame(String id) {
+        return Reply.status(GameSessions.remove(id) ? 204 : 404);
+    }
+
+    //429 com o Retry-After de quando o balde cobre as direções pedidas
+    private static Reply tooManyRequests(MoveLimiter limiter, int moves) {
+        return Reply.status(TOO_MANY_REQUESTS).retryAfter(limiter.getRetryAfterSeconds(moves));
+    }
+
+    private static Reply state(GameState state, boolean binaryReply) {
+        return binaryReply ? Reply.binary(StateCodec.encode(state)) : Reply.json(Json.gson.toJson(state));
+    }
+}
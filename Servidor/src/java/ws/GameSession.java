@@ -0,0 +1,88 @@
+package ws;
+
+import java.util.Random;
+import pkg2048.BitboardEngine;
+import pkg2048.GameEngine;
+
+//Um jogo hospedado no servidor: o board de verdade fica aqui, o cliente só manda direções
+//Cada sessão tem o proprio lock (os metodos synchronized), jogos diferentes nunca se bloqueiam
+public class GameSession {
+
+    private final String id;
+    private final long seed;
+    private final Random random;
+    private final GameEngine engine = new BitboardEngine();
+
+    private int moves;
+
+    //Limite de direções por segundo e descarte de repetidas deste jogo
+    private final MoveLimiter limiter = new MoveLimiter();
+
+    //Ultimo acesso, usado para descartar sessões paradas
+    private volatile long lastAccess;
+
+    public GameSession(String id, long seed) {
+        this.id = id;
+        this.seed = seed;
+        this.random = new Random(seed);
+
+        //Jogo começa com duas peças, como no Gameboard
+        engine.spawn(random);
+        engine.spawn(random);
+        touch();
+    }
+
+    //Aplica o movimento e coloca a peça nova, retorna false se nada se moveu
+    public synchronized boolean move(int direction) {
+        touch();
+        if (engine.isDead() || !engine.apply(direction)) {
+            return false;
+        }
+        engine.spawn(random);
+        moves++;
+        return true;
+    }
+
+    //Aplica as direções em ordem sem soltar o lock: ninguem ve o jogo no meio do lote
+    //Movimentos que não mexem nenhuma peça são ignorados, como no move
+    public synchronized BatchResult moveAll(int[] directions) {
+        touch();
+        int scoreBefore = engine.getScore();
+        int applied = 0;
+        for (int i = 0; i < directions.length && !engine.isDead(); i++) {
+            if (engine.apply(directions[i])) {
+                engine.spawn(random);
+                moves++;
+                applied++;
+            }
+        }
+        return new BatchResult(getState(), engine.getScore() - scoreBefore, applied);
+    }
+
+    //Copia consistente do estado para mandar ao cliente
+    public synchronized GameState getState() {
+        touch();
+        return new GameState(id, engine.getState(), engine.getScore(), moves, engine.isDead(), engine.isWon());
+    }
+
+    public void touch() {
+        lastAccess = System.currentTimeMillis();
+    }
+
+    //========================GETTERS e SETTERS===============================//
+    public String getId() {
+        return id;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getLastAccess() {
+        return lastAccess;
+    }
+
+    public MoveLimiter getLimiter() {
+        return limiter;
+    }
+}
@@ -0,0 +1,88 @@
+package ws;
+
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+//Todas as sessões de jogo do servidor, pelo id
+//O mapa é concorrente e cada sessão tem o proprio lock, então milhares de jogos andam em paralelo
+public class GameSessions {
+
+    //Limite de jogos ao mesmo tempo (cada um ocupa poucas centenas de bytes)
+    public static final int MAX_SESSIONS = Integer.getInteger("ws.session.max", 100000);
+
+    //Sessão sem nenhum acesso nesse tempo é descartada
+    public static final long IDLE_TIMEOUT_MILLIS = Long.getLong("ws.session.idle", TimeUnit.MINUTES.toMillis(30));
+
+    //Intervalo entre as varreduras de sessões paradas
+    public static final long EVICTION_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private static final ConcurrentHashMap<String, GameSession> sessions = new ConcurrentHashMap<>();
+
+    private static final ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "session-evictor");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    static {
+        evictor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                evictIdle(System.currentTimeMillis() - IDLE_TIMEOUT_MILLIS);
+            }
+        }, EVICTION_INTERVAL_MILLIS, EVICTION_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private GameSessions() {
+    }
+
+    //Para a varredura (undeploy no container, ver ShutdownListener)
+    static void shutdown() {
+        evictor.shutdownNow();
+    }
+
+    //Cria um jogo novo, retorna null se o limite de sessões foi atingido
+    public static GameSession create() {
+        if (sessions.size() >= MAX_SESSIONS) {
+            return null;
+        }
+        GameSession session = new GameSession(UUID.randomUUID().toString(), ThreadLocalRandom.current().nextLong());
+        sessions.put(session.getId(), session);
+        return session;
+    }
+
+    //Sessão pelo id, ou null se não existe (ou ja foi descartada)
+    public static GameSession get(String id) {
+        return id == null ? null : sessions.get(id);
+    }
+
+    public static boolean remove(String id) {
+        return sessions.remove(id) != null;
+    }
+
+    //Remove as sessões sem acesso desde 'oldest'
+    static int evictIdle(long oldest) {
+        int removed = 0;
+        Iterator<GameSession> it = sessions.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().getLastAccess() < oldest) {
+                it.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    public static int size() {
+        return sessions.size();
+    }
+}
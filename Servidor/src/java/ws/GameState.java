@@ -0,0 +1,70 @@
+package ws;
+
+import pkg2048.Bitboard;
+
+//Estado de um jogo como é enviado ao cliente (convertido para JSON pelo Gson)
+public class GameState {
+
+    private final String id;
+
+    //Board compactado (ver pkg2048.Bitboard) em hexadecimal, um long não cabe em um numero JSON
+    private final String board;
+    private final transient long packed;
+
+    //Valor das 16 casas, linha por linha (0 = vazio)
+    private final int[] tiles;
+
+    private final int score;
+    private final int moves;
+    private final boolean dead;
+    private final boolean won;
+
+    public GameState(String id, long board, int score, int moves, boolean dead, boolean won) {
+        this.id = id;
+        this.packed = board;
+        this.board = Long.toHexString(board);
+        this.tiles = new int[Bitboard.SIDE * Bitboard.SIDE];
+        for (int row = 0; row < Bitboard.SIDE; row++) {
+            for (int col = 0; col < Bitboard.SIDE; col++) {
+                tiles[row * Bitboard.SIDE + col] = Bitboard.getValue(board, row, col);
+            }
+        }
+        this.score = score;
+        this.moves = moves;
+        this.dead = dead;
+        this.won = won;
+    }
+
+    //========================GETTERS e SETTERS===============================//
+    public String getId() {
+        return id;
+    }
+
+    //Quem criou pelo Gson (cliente lendo JSON) só tem o hexadecimal
+    public long getBoard() {
+        if (packed == 0 && board != null) {
+            return Long.parseUnsignedLong(board, 16);
+        }
+        return packed;
+    }
+
+    public int[] getTiles() {
+        return tiles;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getMoves() {
+        return moves;
+    }
+
+    public boolean isDead() {
+        return dead;
+    }
+
+    public boolean isWon() {
+        return won;
+    }
+}
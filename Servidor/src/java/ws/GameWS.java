@@ -1,43 +1,171 @@
-
-package ws;
-
-import com.google.gson.Gson;
-import javax.ws.rs.core.Context;
-import javax.ws.rs.core.UriInfo;
-import javax.ws.rs.Produces;
-import javax.ws.rs.Consumes;
-import javax.ws.rs.GET;
-import javax.ws.rs.POST;
-import javax.ws.rs.Path;
-
-
-
-@Path("2048")
-public class GameWS extends Files{
-
-    @Context
-    private UriInfo context;
-
-    public GameWS() {
-    }
-
-    //Pega string contida na url e escreve no arquivo
-    @GET
-    @Produces("application/json")
-    public String getDir() {
-        String dir = loadDir();
-        Gson g = new Gson();
-        String aux = g.toJson(dir);
-        setDir("xxx");
-        return aux;
-    }
-    
-    
-    //Usado para o usuário escolher a opção desejada
-    @POST
-    @Consumes("application/json")
-    @Path("direcao")
-    public void putInserir(String content) {
-        setDir(content);
-    }
-}
+
+package ws;
+
+import java.util.concurrent.TimeUnit;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.container.TimeoutHandler;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.UriInfo;
+import javax.ws.rs.Produces;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.DELETE;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.QueryParam;
+
+
+
+@Path("2048")
+public class GameWS {
+
+    private static final MediaType BINARY = MediaType.valueOf(StateCodec.MEDIA_TYPE);
+
+    @Context
+    private UriInfo context;
+
+    @Context
+    private HttpHeaders headers;
+
+    public GameWS() {
+    }
+
+    //Proxima direção da fila do jogo ("xxx" se não tiver nenhuma)
+    @GET
+    @Produces("application/json")
+    public Response getDir(@QueryParam("jogo") @DefaultValue(DirectionChannel.DEFAULT_GAME) String game) {
+        return toResponse(GameService.nextDirection(game));
+    }
+    
+    
+    //Long-poll: a requisição fica parada ate chegar uma direção no POST (ou ate o timeout, com "")
+    @GET
+    @Produces("application/json")
+    @Path("aguardar")
+    public void waitDir(@QueryParam("jogo") @DefaultValue(DirectionChannel.DEFAULT_GAME) final String game,
+            @Suspended final AsyncResponse response) {
+        final DirectionWaiter waiter = new DirectionWaiter() {
+            @Override
+            public boolean deliver(String json) {
+                return response.resume(json);
+            }
+        };
+        response.setTimeout(GameService.WAIT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        response.setTimeoutHandler(new TimeoutHandler() {
+            @Override
+            public void handleTimeout(AsyncResponse timedOut) {
+                timedOut.resume(GameService.cancelWait(game, waiter));
+            }
+        });
+        GameService.awaitDirection(game, waiter);
+    }
+
+    //Usado para o usuário escolher a opção desejada
+    //Todas as direções entram na fila do jogo, em ordem; 503 se a fila estiver cheia
+    //e 429 se o jogo passou do limite de direções por segundo (ver MoveLimiter)
+    @POST
+    @Consumes("application/json")
+    @Path("direcao")
+    public Response putInserir(@QueryParam("jogo") @DefaultValue(DirectionChannel.DEFAULT_GAME) String game,
+            String content) {
+        return toResponse(GameService.publish(game, content));
+    }
+
+    //Varias direções em uma requisição só, no corpo como lista JSON: ["cima", "esquerda", ...]
+    //Se 'jogo' for uma sessão do servidor as direções são aplicadas de uma vez e volta o estado,
+    //senão entram todas juntas (ou nenhuma) na fila de direções do jogo
+    @POST
+    @Consumes("application/json")
+    @Produces({"application/json", StateCodec.MEDIA_TYPE})
+    @Path("direcao/batch")
+    public Response batchInserir(@QueryParam("jogo") @DefaultValue(DirectionChannel.DEFAULT_GAME) String game,
+            String content) {
+        return toResponse(GameService.batch(game, content, wantsBinary()));
+    }
+
+    //Mesmo lote no formato binario: um byte por direção
+    @POST
+    @Consumes(StateCodec.MEDIA_TYPE)
+    @Produces({"application/json", StateCodec.MEDIA_TYPE})
+    @Path("direcao/batch")
+    public Response batchInserirBinary(@QueryParam("jogo") @DefaultValue(DirectionChannel.DEFAULT_GAME) String game,
+            byte[] content) {
+        return toResponse(GameService.batch(game, content, wantsBinary()));
+    }
+
+    //=========================JOGOS NO SERVIDOR===============================//
+    //Cada jogo tem o board no servidor, o cliente só manda direções e recebe o estado
+    //O estado volta em JSON, ou no formato binario do StateCodec se o Accept pedir
+
+    //Cria um jogo novo e retorna o estado inicial (com o id da sessão)
+    @POST
+    @Produces({"application/json", StateCodec.MEDIA_TYPE})
+    @Path("jogo")
+    public Response createGame() {
+        return toResponse(GameService.createGame(wantsBinary()));
+    }
+
+    //Estado atual do jogo
+    @GET
+    @Produces({"application/json", StateCodec.MEDIA_TYPE})
+    @Path("jogo/{id}")
+    public Response getGame(@PathParam("id") String id) {
+        return toResponse(GameService.getGame(id, wantsBinary()));
+    }
+
+    //Aplica uma direção (cima, baixo, esquerda, direita) e retorna o novo estado
+    @POST
+    @Consumes("application/json")
+    @Produces({"application/json", StateCodec.MEDIA_TYPE})
+    @Path("jogo/{id}/direcao")
+    public Response moveGame(@PathParam("id") String id, String content) {
+        return toResponse(GameService.moveGame(id, content, wantsBinary()));
+    }
+
+    //Mesma coisa com a direção em um byte (constante do GameEngine)
+    @POST
+    @Consumes(StateCodec.MEDIA_TYPE)
+    @Produces({"application/json", StateCodec.MEDIA_TYPE})
+    @Path("jogo/{id}/direcao")
+    public Response moveGameBinary(@PathParam("id") String id, byte[] content) {
+        return toResponse(GameService.moveGame(id, content, wantsBinary()));
+    }
+
+    //Encerra o jogo antes do timeout de inatividade
+    @DELETE
+    @Path("jogo/{id}")
+    public Response deleteGame(@PathParam("id") String id) {
+        return toResponse(GameService.deleteGame(id));
+    }
+
+    //=========================FORMATO DA RESPOSTA============================//
+    private Response toResponse(Reply reply) {
+        Response.ResponseBuilder builder = Response.status(reply.getStatus());
+        if (reply.getCreated() != null) {
+            builder.location(context.getAbsolutePathBuilder().path(reply.getCreated()).build());
+        }
+        if (reply.getRetryAfter() > 0) {
+            builder.header("Retry-After", reply.getRetryAfter());
+        }
+        if (reply.getBody() != null) {
+            builder.entity(reply.getBody()).type(reply.getType());
+        }
+        return builder.build();
+    }
+
+    //Binario só quando o cliente pede explicitamente (um Accept */* continua recebendo JSON)
+    private boolean wantsBinary() {
+        for (MediaType type : headers.getAcceptableMediaTypes()) {
+            if (BINARY.getType().equals(type.getType()) && BINARY.getSubtype().equals(type.getSubtype())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
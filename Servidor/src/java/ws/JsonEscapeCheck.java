@@ -0,0 +1,65 @@
+package ws;
+
+import com.google.gson.Gson;
+import java.util.Random;
+
+//========================================================================//
+/*
+ Confere que o DirectionChannel.toJson gera exatamente o mesmo JSON que o Gson (o GameWS sempre
+ respondeu com o Gson, e o toJson escreve na mão para não carregar o Gson na subida).
+ Testa todos os caracteres de 0 a 0xFFFF sozinhos, os nomes das direções e strings aleatorias
+ (com pares surrogate). Rodar de novo depois de trocar a versão do Gson.
+
+ Uso: java -cp Servidor.jar:2048.jar:gson-2.3.1.jar ws.JsonEscapeCheck [strings aleatorias]
+ */
+public class JsonEscapeCheck {
+
+    private JsonEscapeCheck() {
+    }
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        Gson gson = new Gson();
+
+        int checked = 0;
+        int failed = 0;
+        for (int c = 0; c <= Character.MAX_VALUE; c++) {
+            failed += check(gson, String.valueOf((char) c));
+            checked++;
+        }
+        for (String dir : new String[]{"", "xxx", "cima", "baixo", "esquerda", "direita"}) {
+            failed += check(gson, dir);
+            checked++;
+        }
+
+        Random random = new Random(2048);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            text.setLength(0);
+            int length = random.nextInt(32);
+            for (int j = 0; j < length; j++) {
+                //Metade ASCII (onde estão quase todos os escapes), metade qualquer caractere
+                text.append((char) (random.nextBoolean() ? random.nextInt(0x80) : random.nextInt(Character.MAX_VALUE + 1)));
+            }
+            failed += check(gson, text.toString());
+            checked++;
+        }
+        failed += check(gson, null);
+        checked++;
+
+        System.out.println(checked + " strings, " + failed + " diferentes do Gson");
+        if (failed > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static int check(Gson gson, String value) {
+        String expected = gson.toJson(value);
+        String actual = DirectionChannel.toJson(value);
+        if (expected.equals(actual)) {
+            return 0;
+        }
+        System.out.println("diferente: Gson " + expected + " toJson " + actual);
+        return 1;
+    }
+}
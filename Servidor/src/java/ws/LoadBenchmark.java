@@ -0,0 +1,138 @@
+package ws;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+//========================================================================//
+/*
+ Gerador de carga local para o EmbeddedServer (no mesmo processo).
+ 1) Abre N conexões de long-poll (/aguardar), cada uma em um jogo, e espera todas ficarem paradas.
+ 2) Com elas paradas, faz requisições curtas (GET do estado de um jogo do servidor)
+    de alguns clientes ao mesmo tempo e mede p50/p99.
+ 3) Posta uma direção para cada jogo e mede o tempo ate todas as conexões receberem.
+ Mostra quantas threads e quanta memoria o servidor usou com as N conexões paradas.
+ Sem threads virtuais (antes do Java 21) N fica limitado ao EmbeddedServer.MAX_WAITERS.
+
+ Uso: java -cp Servidor.jar:2048.jar:gson-2.3.1.jar ws.LoadBenchmark [conexões] [requisições] [clientes]
+ */
+public class LoadBenchmark {
+
+    private LoadBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int connections = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        final int requests = args.length > 1 ? Integer.parseInt(args[1]) : 20000;
+        int clients = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+
+        EmbeddedServer server = new EmbeddedServer(0, EmbeddedServer.DEFAULT_CONTEXT);
+        server.start();
+        //Acima do limite as conexões receberiam 503 e nunca ficariam paradas
+        connections = Math.min(connections, server.getMaxWaiters());
+        final String base = "http://127.0.0.1:" + server.getPort() + EmbeddedServer.DEFAULT_CONTEXT;
+        System.out.println("threads virtuais=" + server.isVirtualThreads() + " conexões=" + connections
+                + " requisições=" + requests + " clientes=" + clients);
+
+        int threadsBefore = ManagementFactory.getThreadMXBean().getThreadCount();
+        long heapBefore = usedHeap();
+
+        //1) Conexões de long-poll paradas no servidor
+        long start = System.nanoTime();
+        Socket[] sockets = new Socket[connections];
+        for (int i = 0; i < connections; i++) {
+            sockets[i] = new Socket();
+            sockets[i].connect(new InetSocketAddress("127.0.0.1", server.getPort()));
+            sockets[i].setSoTimeout((int) (GameService.WAIT_TIMEOUT_SECONDS * 1000 * 2));
+            OutputStream out = sockets[i].getOutputStream();
+            out.write(("GET " + EmbeddedServer.DEFAULT_CONTEXT + "/aguardar?jogo=carga" + i
+                    + " HTTP/1.1\r\nHost: localhost\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+        }
+        while (DirectionChannel.getGames().size() < connections) {
+            Thread.sleep(10);
+        }
+        System.out.printf("%d conexões paradas em %.0f ms: +%d threads, +%.1f MB de heap%n", connections,
+                (System.nanoTime() - start) / 1e6, ManagementFactory.getThreadMXBean().getThreadCount() - threadsBefore,
+                (usedHeap() - heapBefore) / 1e6);
+
+        //2) Latencia das requisições curtas com as conexões paradas
+        final String session = GameSessions.create().getId();
+        for (int i = 0; i < 2000; i++) {
+            get(base + "/jogo/" + session); //aquecimento
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        List<Future<long[]>> results = new ArrayList<>(clients);
+        final int perClient = requests / clients;
+        start = System.nanoTime();
+        for (int c = 0; c < clients; c++) {
+            results.add(pool.submit(new java.util.concurrent.Callable<long[]>() {
+                @Override
+                public long[] call() throws Exception {
+                    long[] times = new long[perClient];
+                    for (int i = 0; i < perClient; i++) {
+                        long begin = System.nanoTime();
+                        get(base + "/jogo/" + session);
+                        times[i] = System.nanoTime() - begin;
+                    }
+                    return times;
+                }
+            }));
+        }
+        long[] times = new long[perClient * clients];
+        for (int c = 0; c < clients; c++) {
+            System.arraycopy(results.get(c).get(), 0, times, c * perClient, perClient);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        pool.shutdown();
+        Arrays.sort(times);
+        System.out.printf("requisições curtas: %.0f req/s p50=%.0f us p99=%.0f us max=%.0f us%n", times.length / seconds,
+                times[times.length / 2] / 1e3, times[(int) (times.length * 0.99)] / 1e3, times[times.length - 1] / 1e3);
+
+        //3) Uma direção para cada conexão parada
+        start = System.nanoTime();
+        for (int i = 0; i < connections; i++) {
+            DirectionChannel.publish("carga" + i, "cima");
+        }
+        int delivered = 0;
+        byte[] buffer = new byte[1024];
+        for (Socket socket : sockets) {
+            InputStream in = socket.getInputStream();
+            int n = in.read(buffer);
+            if (n > 0 && new String(buffer, 0, n, StandardCharsets.US_ASCII).contains("cima")) {
+                delivered++;
+            }
+            socket.close();
+        }
+        System.out.printf("%d/%d direções entregues em %.0f ms%n", delivered, connections, (System.nanoTime() - start) / 1e6);
+
+        server.stop();
+    }
+
+    private static void get(String url) throws IOException {
+        HttpURLConnection con = (HttpURLConnection) new URL(url).openConnection();
+        try (InputStream in = con.getInputStream()) {
+            while (in.read() != -1) {
+                //lê ate o fim para a conexão voltar ao pool
+            }
+        }
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,66 @@
+package ws;
+
+//========================================================================//
+/*
+ Controle de fluxo de um jogo: token bucket (RATE direções por segundo, rajadas de ate BURST)
+ e, opcionalmente, descarte da mesma direção repetida dentro de COALESCE_MILLIS.
+ O classificador do Android manda o mesmo rotulo quadro apos quadro; com a janela ligada
+ a sequencia vira um movimento só (cada repetição renova a janela).
+ Tudo configuravel por propriedades de sistema: ws.rate.perSecond, ws.rate.burst e ws.coalesce.millis.
+ */
+public class MoveLimiter {
+
+    public static final double RATE = Double.parseDouble(System.getProperty("ws.rate.perSecond", "20"));
+    public static final double BURST = Double.parseDouble(System.getProperty("ws.rate.burst", "40"));
+
+    //0 desliga o descarte de repetidas
+    public static final long COALESCE_MILLIS = Long.getLong("ws.coalesce.millis", 0);
+
+    private double tokens = BURST;
+    private long lastRefill = System.nanoTime();
+
+    private String lastMove;
+    private long lastMoveAt;
+
+    //Gasta um token, retorna false se o jogo passou do limite
+    public boolean tryAcquire() {
+        return tryAcquire(1);
+    }
+
+    //Gasta um token por direção de um lote, só se o balde cobre o lote inteiro (nunca fica negativo)
+    public synchronized boolean tryAcquire(int moves) {
+        refill();
+        if (tokens < moves) {
+            return false;
+        }
+        tokens -= moves;
+        return true;
+    }
+
+    //Segundos ate o balde cobrir 'moves' direções (header Retry-After do 429), no minimo 1
+    public synchronized long getRetryAfterSeconds(int moves) {
+        refill();
+        return Math.max(1, (long) Math.ceil((Math.min(moves, BURST) - tokens) / RATE));
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(BURST, tokens + (now - lastRefill) * RATE / 1e9);
+        lastRefill = now;
+    }
+
+    //True se é a mesma direção da ultima aceita dentro da janela (deve ser ignorada)
+    //Só confere: a janela muda em recordAccepted, então uma direção recusada (429/503) e reenviada não vira repetida
+    public synchronized boolean isRepeat(String move) {
+        return COALESCE_MILLIS > 0 && move.equals(lastMove) && System.nanoTime() - lastMoveAt < COALESCE_MILLIS * 1000000;
+    }
+
+    //Abre (ou renova) a janela: chamar depois que a direção entrou na fila ou foi aplicada
+    public synchronized void recordAccepted(String move) {
+        if (COALESCE_MILLIS <= 0) {
+            return;
+        }
+        lastMove = move;
+        lastMoveAt = System.nanoTime();
+    }
+}
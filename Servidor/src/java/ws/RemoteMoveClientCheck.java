@@ -0,0 +1,124 @@
+package ws;
+
+import java.util.Arrays;
+import java.util.Random;
+import pkg2048.Servidor.RemoteMoveClient;
+
+//========================================================================//
+/*
+ Testa o RemoteMoveClient do jogo contra um EmbeddedServer de verdade, no mesmo processo
+ (porta livre escolhida pelo sistema, o cliente aponta para ela pelo -D2048.servidor).
+ 1) Ordem: N direções publicadas chegam na fila do cliente, na mesma ordem.
+ 2) Latencia: tempo entre publicar uma direção e o jogo conseguir ler (long-poll parado no servidor).
+ 3) Queda: o servidor para e volta na mesma porta; o cliente reconecta sozinho (backoff) e recebe.
+ Sai com codigo 1 se alguma coisa falhar.
+
+ Uso: java -cp Servidor.jar:2048.jar:gson-2.3.1.jar ws.RemoteMoveClientCheck [direções] [rodadas]
+ */
+public class RemoteMoveClientCheck {
+
+    private static final String[] NAMES = {"esquerda", "direita", "cima", "baixo"};
+
+    //Espera maxima por uma direção antes de dar como perdida
+    private static final long RECEIVE_TIMEOUT_MILLIS = 10000;
+
+    //Backoff do cliente: começa em 50 ms e não passa de 1 s
+    private static final long POLL_INTERVAL_MILLIS = 50;
+    private static final long MAX_BACKOFF_MILLIS = 1000;
+
+    private RemoteMoveClientCheck() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int moves = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        EmbeddedServer server = new EmbeddedServer(0, EmbeddedServer.DEFAULT_CONTEXT);
+        server.start();
+        int port = server.getPort();
+        System.setProperty("2048.servidor", "http://127.0.0.1:" + port + EmbeddedServer.DEFAULT_CONTEXT);
+        RemoteMoveClient client = new RemoteMoveClient(256, POLL_INTERVAL_MILLIS, MAX_BACKOFF_MILLIS);
+        client.start();
+        System.out.println("servidor na porta " + port + ", threads virtuais=" + server.isVirtualThreads());
+
+        int failed = 0;
+
+        //1) Ordem
+        Random random = new Random(2048);
+        int[] sent = new int[moves];
+        for (int i = 0; i < moves; i++) {
+            String name = NAMES[random.nextInt(NAMES.length)];
+            sent[i] = RemoteMoveClient.parseDirection(name);
+            DirectionChannel.publish(DirectionChannel.DEFAULT_GAME, name);
+        }
+        int received = 0;
+        for (int i = 0; i < moves; i++) {
+            int dir = receive(client);
+            if (dir == -1) {
+                break;
+            }
+            if (dir != sent[i]) {
+                System.out.println("fora de ordem na direção " + i + ": " + dir + " em vez de " + sent[i]);
+                failed++;
+                break;
+            }
+            received++;
+        }
+        if (received < moves) {
+            failed++;
+        }
+        System.out.println("ordem: " + received + "/" + moves + " direções recebidas em ordem");
+
+        //2) Latencia com o cliente parado no long-poll
+        long[] times = new long[rounds];
+        for (int i = 0; i < rounds; i++) {
+            Thread.sleep(5);    //tempo para o cliente voltar a esperar no servidor
+            String name = NAMES[i % NAMES.length];
+            long start = System.nanoTime();
+            DirectionChannel.publish(DirectionChannel.DEFAULT_GAME, name);
+            if (receive(client) != RemoteMoveClient.parseDirection(name)) {
+                System.out.println("latencia: direção " + i + " perdida ou errada");
+                failed++;
+                break;
+            }
+            times[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(times);
+        System.out.printf("latencia publicar -> fila do jogo: p50=%.0f us p99=%.0f us max=%.0f us%n",
+                times[rounds / 2] / 1e3, times[(int) (rounds * 0.99)] / 1e3, times[rounds - 1] / 1e3);
+
+        //3) Servidor cai e volta na mesma porta
+        server.stop();
+        Thread.sleep(2 * MAX_BACKOFF_MILLIS);
+        server = new EmbeddedServer(port, EmbeddedServer.DEFAULT_CONTEXT);
+        server.start();
+        long start = System.nanoTime();
+        DirectionChannel.publish(DirectionChannel.DEFAULT_GAME, "cima");
+        int dir = receive(client);
+        if (dir != RemoteMoveClient.parseDirection("cima")) {
+            System.out.println("queda: o cliente não reconectou");
+            failed++;
+        } else {
+            System.out.printf("queda: reconectou e recebeu em %.0f ms (backoff maximo %d ms)%n",
+                    (System.nanoTime() - start) / 1e6, MAX_BACKOFF_MILLIS);
+        }
+
+        client.stop();
+        server.stop();
+        System.out.println(failed == 0 ? "ok" : failed + " falhas");
+        System.exit(failed == 0 ? 0 : 1);
+    }
+
+    //Lê a fila do cliente como o loop do jogo faz, ate chegar uma direção (-1 no timeout)
+    private static int receive(RemoteMoveClient client) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + RECEIVE_TIMEOUT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            int dir = client.poll();
+            if (dir != -1) {
+                return dir;
+            }
+            Thread.yield();
+        }
+        return -1;
+    }
+}
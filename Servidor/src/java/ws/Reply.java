@@ -0,0 +1,70 @@
+package ws;
+
+import java.nio.charset.StandardCharsets;
+
+//Resposta de uma operação do GameService, sem depender do JAX-RS
+//O GameWS converte em Response e o EmbeddedServer escreve direto no HttpExchange
+public class Reply {
+
+    public static final String JSON = "application/json";
+
+    private final int status;
+    private final String type;
+    private final byte[] body;
+
+    //Id do jogo criado (vira o header Location)
+    private final String created;
+
+    //Segundos para tentar de novo (header Retry-After do 429), 0 = sem header
+    private final long retryAfter;
+
+    private Reply(int status, String type, byte[] body, String created, long retryAfter) {
+        this.status = status;
+        this.type = type;
+        this.body = body;
+        this.created = created;
+        this.retryAfter = retryAfter;
+    }
+
+    public static Reply json(String json) {
+        return new Reply(200, JSON, json.getBytes(StandardCharsets.UTF_8), null, 0);
+    }
+
+    public static Reply binary(byte[] data) {
+        return new Reply(200, StateCodec.MEDIA_TYPE, data, null, 0);
+    }
+
+    //Só o codigo HTTP, sem corpo (204, 400, 404 ...)
+    public static Reply status(int status) {
+        return new Reply(status, null, null, null, 0);
+    }
+
+    public Reply created(String id) {
+        return new Reply(201, type, body, id, retryAfter);
+    }
+
+    public Reply retryAfter(long seconds) {
+        return new Reply(status, type, body, created, seconds);
+    }
+
+    //========================GETTERS e SETTERS===============================//
+    public int getStatus() {
+        return status;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public String getCreated() {
+        return created;
+    }
+
+    public long getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,26 @@
+package ws;
+
+import javax.servlet.ServletContextEvent;
+import javax.servlet.ServletContextListener;
+import javax.servlet.annotation.WebListener;
+
+//========================================================================//
+/*
+ Fim da aplicação no container (undeploy ou GlassFish parando): grava as direções pendentes
+ e para as threads do ws, senão elas ficam vivas segurando o classloader a cada redeploy.
+ O StandaloneServer faz o mesmo no shutdown hook dele.
+ */
+@WebListener
+public class ShutdownListener implements ServletContextListener {
+
+    @Override
+    public void contextInitialized(ServletContextEvent event) {
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent event) {
+        Files.flush();
+        DirectionChannel.shutdown();
+        GameSessions.shutdown();
+    }
+}
@@ -0,0 +1,44 @@
+package ws;
+
+//========================================================================//
+/*
+ Sobe o servidor do jogo sem NetBeans nem GlassFish: os endpoints do GameWS
+ no EmbeddedServer, em http://localhost:<porta>/Servidor/webresources/2048.
+ Nada é carregado antes da primeira requisição alem do proprio servidor HTTP (para rodar
+ um por teste ou por torneio de bots). Medido: pronto em ~100 ms depois do main; a primeira
+ resposta, que ainda carrega o serviço, o Gson e o engine, sai em 350-400 ms desde o inicio
+ da JVM (~275 ms com -XX:TieredStopAtLevel=1 e o arquivo CDS do README).
+
+ Uso: java -cp Servidor.jar:2048.jar:gson-2.3.1.jar ws.StandaloneServer [porta] [contexto]
+ Porta 0 escolhe uma porta livre, que é mostrada na saida.
+ */
+public class StandaloneServer {
+
+    public static final int DEFAULT_PORT = 8080;
+
+    private StandaloneServer() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        long start = System.nanoTime();
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        String context = args.length > 1 ? args[1] : EmbeddedServer.DEFAULT_CONTEXT;
+
+        final EmbeddedServer server = new EmbeddedServer(port, context);
+        server.start();
+
+        //Ctrl+C: para de aceitar conexões e grava as direções pendentes
+        Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+            @Override
+            public void run() {
+                server.stop();
+                Files.flush();
+            }
+        }, "shutdown"));
+
+        //Sem printf: o Formatter sozinho custa alguns ms na subida
+        System.out.println("Servidor 2048 em http://localhost:" + server.getPort() + context
+                + " (" + (System.nanoTime() - start) / 1000000 + " ms, threads virtuais: "
+                + (server.isVirtualThreads() ? "sim" : "não") + ")");
+    }
+}
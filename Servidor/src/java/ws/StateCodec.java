@@ -0,0 +1,89 @@
+package ws;
+
+import java.nio.ByteBuffer;
+
+/*
+ Formato binario do estado do jogo, alternativa ao JSON para clientes que pedem o estado a cada movimento.
+ Layout: board compactado (8 bytes, big-endian, ver pkg2048.Bitboard), score e moves como varint
+ (7 bits por byte, o bit mais alto indica que continua) e um byte de flags (1 = morto, 2 = ganhou).
+ Um estado ocupa de 11 a 19 bytes, contra ~150 do JSON.
+ No corpo das requisições cada direção é um byte com a constante do GameEngine (0 = esquerda ... 3 = baixo).
+ */
+public class StateCodec {
+
+    public static final String MEDIA_TYPE = "application/x-2048-state";
+
+    //Tamanho maximo de um estado codificado
+    public static final int MAX_STATE_BYTES = 8 + 5 + 5 + 1;
+
+    private static final int FLAG_DEAD = 1;
+    private static final int FLAG_WON = 2;
+
+    private StateCodec() {
+    }
+
+    //===========================CODIFICAÇÃO==================================//
+    public static byte[] encode(GameState state) {
+        ByteBuffer buffer = ByteBuffer.allocate(MAX_STATE_BYTES);
+        encode(state, buffer);
+        return copy(buffer);
+    }
+
+    public static void encode(GameState state, ByteBuffer buffer) {
+        buffer.putLong(state.getBoard());
+        putVarint(buffer, state.getScore());
+        putVarint(buffer, state.getMoves());
+        buffer.put((byte) ((state.isDead() ? FLAG_DEAD : 0) | (state.isWon() ? FLAG_WON : 0)));
+    }
+
+    //Lote: estado final seguido dos pontos ganhos e das direções aplicadas
+    public static byte[] encode(BatchResult result) {
+        ByteBuffer buffer = ByteBuffer.allocate(MAX_STATE_BYTES + 10);
+        encode(result.getState(), buffer);
+        putVarint(buffer, result.getScoreDelta());
+        putVarint(buffer, result.getApplied());
+        return copy(buffer);
+    }
+
+    //=========================DECODIFICAÇÃO==================================//
+    //O id da sessão não vai no formato binario (o cliente ja sabe qual jogo pediu)
+    public static GameState decode(ByteBuffer buffer) {
+        long board = buffer.getLong();
+        int score = getVarint(buffer);
+        int moves = getVarint(buffer);
+        int flags = buffer.get();
+        return new GameState(null, board, score, moves, (flags & FLAG_DEAD) != 0, (flags & FLAG_WON) != 0);
+    }
+
+    public static GameState decode(byte[] data) {
+        return decode(ByteBuffer.wrap(data));
+    }
+
+    //==============================VARINT====================================//
+    static void putVarint(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    static int getVarint(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("varint muito longo");
+    }
+
+    private static byte[] copy(ByteBuffer buffer) {
+        byte[] data = new byte[buffer.position()];
+        buffer.flip();
+        buffer.get(data);
+        return data;
+    }
+}
@@ -0,0 +1,119 @@
+package ws;
+
+import com.google.gson.Gson;
+import java.util.Random;
+import pkg2048.BitboardEngine;
+
+//========================================================================//
+/*
+ Benchmark do formato do estado: JSON (Gson, como o GameWS sempre respondeu) contra o StateCodec.
+ Codifica e decodifica os mesmos estados nos dois formatos e mostra estados/ms e bytes por estado.
+ Cada lado mede o que o servidor faz por resposta: o Gson gera uma String e o StateCodec um byte[].
+
+ Uso: java -cp Servidor.jar:2048.jar:gson-2.3.1.jar ws.StateCodecBenchmark [estados] [rodadas]
+ */
+public class StateCodecBenchmark {
+
+    private StateCodecBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+
+        GameState[] states = createStates(count);
+        Gson gson = new Gson();
+
+        String[] json = new String[count];
+        byte[][] binary = new byte[count][];
+        long jsonBytes = 0;
+        long binaryBytes = 0;
+        for (int i = 0; i < count; i++) {
+            json[i] = gson.toJson(states[i]);
+            binary[i] = StateCodec.encode(states[i]);
+            jsonBytes += json[i].getBytes(java.nio.charset.StandardCharsets.UTF_8).length;
+            binaryBytes += binary[i].length;
+        }
+
+        System.out.println("estados=" + count + " rodadas=" + rounds);
+        System.out.println("formato\tbytes/estado\tcodificar(estados/ms)\tdecodificar(estados/ms)");
+
+        long sink = 0;
+        double jsonEncode = 0;
+        double jsonDecode = 0;
+        double binaryEncode = 0;
+        double binaryDecode = 0;
+
+        //Primeira metade das rodadas é aquecimento do JIT
+        for (int round = 0; round < rounds; round++) {
+            boolean measure = round >= rounds / 2;
+
+            long start = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                sink += gson.toJson(states[i]).length();
+            }
+            long time = System.nanoTime() - start;
+            if (measure) {
+                jsonEncode += time;
+            }
+
+            start = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                sink += gson.fromJson(json[i], GameState.class).getBoard();
+            }
+            time = System.nanoTime() - start;
+            if (measure) {
+                jsonDecode += time;
+            }
+
+            start = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                sink += StateCodec.encode(states[i]).length;
+            }
+            time = System.nanoTime() - start;
+            if (measure) {
+                binaryEncode += time;
+            }
+
+            start = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                sink += StateCodec.decode(binary[i]).getBoard();
+            }
+            time = System.nanoTime() - start;
+            if (measure) {
+                binaryDecode += time;
+            }
+        }
+
+        double measured = (double) count * (rounds - rounds / 2);
+        System.out.printf("json\t%.1f\t%.0f\t%.0f%n", (double) jsonBytes / count,
+                measured / (jsonEncode / 1e6), measured / (jsonDecode / 1e6));
+        System.out.printf("binario\t%.1f\t%.0f\t%.0f%n", (double) binaryBytes / count,
+                measured / (binaryEncode / 1e6), measured / (binaryDecode / 1e6));
+        System.out.println("(ignorar) " + sink);
+    }
+
+    //Estados de jogos aleatorios com semente fixa, do começo ao fim da partida
+    private static GameState[] createStates(int count) {
+        GameState[] states = new GameState[count];
+        Random random = new Random(2048);
+        BitboardEngine engine = new BitboardEngine();
+        int moves = 0;
+
+        for (int i = 0; i < count; i++) {
+            if (engine.isDead() || moves == 0) {
+                engine.reset();
+                engine.spawn(random);
+                engine.spawn(random);
+                moves = 1;
+            }
+            if (engine.apply(random.nextInt(4))) {
+                engine.spawn(random);
+                moves++;
+            }
+            states[i] = new GameState("b2c1a7e0-5d3f-4e8a-9c61-" + Integer.toHexString(i), engine.getState(),
+                    engine.getScore(), moves, engine.isDead(), engine.isWon());
+        }
+        return states;
+    }
+}